@@ -0,0 +1,125 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/**
+ * Generates configuration bean classes with the given amount of properties, so that bean binding can be measured on
+ * beans of various sizes. The classes are compiled at runtime, therefore the benchmarks must be run on a JDK.
+ * <p>
+ * The properties are named <code>p0</code>, <code>p1</code>, etc., and their types repeat in the order of
+ * <code>String</code>, <code>int</code>, <code>String[]</code>, and <code>Map</code>. Besides the default constructor,
+ * a generated bean has a constructor with parameters <code>(String p0, int p1)</code>, and a property
+ * <code>child</code> of the bean type itself.
+ *
+ * @author Martti Tamm
+ */
+public final class BeanGenerator {
+
+  private static final String[] TYPES = { "String", "int", "String[]", "java.util.Map<String, String>" };
+
+  /**
+   * Provides the index of the last property of given kind (0 - <code>String</code>, 1 - <code>int</code>, 2 -
+   * <code>String[]</code>, 3 - <code>Map</code>) in a bean with given amount of properties.
+   *
+   * @param properties The amount of bean properties (at least 4).
+   * @param kind The kind of the property type.
+   * @return The property name.
+   */
+  public static String lastProperty(int properties, int kind) {
+    int index = properties - 1;
+    while (index % TYPES.length != kind) {
+      index--;
+    }
+    return "p" + index;
+  }
+
+  /**
+   * Generates, compiles, and loads a bean class with given amount of properties. The class is compiled into a
+   * temporary directory, which is deleted when the JVM exits.
+   *
+   * @param properties The amount of bean properties (at least 4).
+   * @return The loaded bean class.
+   * @throws IOException When the class could not be compiled.
+   * @throws ClassNotFoundException When the compiled class could not be loaded.
+   */
+  public static Class<?> generate(int properties) throws IOException, ClassNotFoundException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      throw new IOException("Bean classes can be generated only when running on a JDK");
+    }
+
+    String name = "Bean" + properties;
+    File dir = File.createTempFile("rocket-config-beans", "");
+    if (!dir.delete() || !dir.mkdir()) {
+      throw new IOException("Could not create directory " + dir);
+    }
+
+    // Files registered for deletion are deleted in reverse order, so the directory is registered first.
+    File source = new File(dir, name + ".java");
+    dir.deleteOnExit();
+    source.deleteOnExit();
+    new File(dir, name + ".class").deleteOnExit();
+
+    OutputStream out = new FileOutputStream(source);
+    try {
+      out.write(source(name, properties).getBytes("UTF-8"));
+    } finally {
+      out.close();
+    }
+
+    if (compiler.run(null, null, null, "-d", dir.getPath(), source.getPath()) != 0) {
+      throw new IOException("Could not compile " + source);
+    }
+
+    ClassLoader loader = new URLClassLoader(new URL[] { dir.toURI().toURL() }, BeanGenerator.class.getClassLoader());
+    return loader.loadClass(name);
+  }
+
+  private static String source(String name, int properties) {
+    StringBuilder src = new StringBuilder(properties * 128);
+    src.append("public class ").append(name).append(" {\n");
+    src.append("  private ").append(name).append(" child;\n");
+
+    for (int i = 0; i < properties; i++) {
+      src.append("  private ").append(TYPES[i % TYPES.length]).append(" p").append(i).append(";\n");
+    }
+
+    src.append("  public ").append(name).append("() {}\n");
+    src.append("  public ").append(name).append("(String p0, int p1) { this.p0 = p0; this.p1 = p1; }\n");
+    src.append("  public void setChild(").append(name).append(" child) { this.child = child; }\n");
+
+    for (int i = 0; i < properties; i++) {
+      src.append("  public void setP").append(i).append('(').append(TYPES[i % TYPES.length]).append(" value) { p")
+          .append(i).append(" = value; }\n");
+    }
+
+    return src.append("}\n").toString();
+  }
+
+  private BeanGenerator() {
+  }
+
+}
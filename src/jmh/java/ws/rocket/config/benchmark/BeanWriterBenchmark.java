@@ -0,0 +1,231 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config.benchmark;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ws.rocket.config.Messages;
+import ws.rocket.config.bean.BeanType;
+import ws.rocket.config.bean.BeanWriter;
+import ws.rocket.config.section.value.DefaultConverter;
+import ws.rocket.config.section.write.BeanConstructorWriter;
+
+/**
+ * Measures the reflective bean binding of <code>BeanWriter</code> on generated beans with 10, 100, and 1000 properties
+ * (see {@link BeanGenerator}). The <code>setProperty</code> benchmarks write the last property of its kind, so that
+ * the lookup cost of large beans is included.
+ * <p>
+ * The construction benchmarks use a new writer (but the same bean type information) per invocation, since they replace
+ * the bean of the writer, and since their messages must not pile up.
+ *
+ * @author Martti Tamm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanWriterBenchmark {
+
+  @Param({ "10", "100", "1000" })
+  private int properties;
+
+  private final DefaultConverter converter = new DefaultConverter();
+
+  private final List<String> listValue = Arrays.asList("a", "b", "c");
+
+  private final Map<String, String> mapValue = new HashMap<String, String>();
+
+  private final Map<String, String> constructorValues = new HashMap<String, String>();
+
+  private final Map<String, String> fallbackValues = new HashMap<String, String>();
+
+  private final Map<String, String> setterValues = new HashMap<String, String>();
+
+  private final String[] constructorParams = { "p0", "p1" };
+
+  private final String[] fallbackParams = { "p0", "p4" };
+
+  private final String[] noParams = {};
+
+  private final BeanConstructorWriter constructorWriter = new BeanConstructorWriter("child", "p0", "p1");
+
+  private BeanType<?> beanType;
+
+  private BeanWriter<?> writer;
+
+  private String stringProperty;
+
+  private String intProperty;
+
+  private String arrayProperty;
+
+  private String mapProperty;
+
+  /**
+   * Generates the bean type, and prepares the values.
+   *
+   * @throws Exception When the bean type cannot be generated.
+   */
+  @Setup
+  public final void setUp() throws Exception {
+    this.beanType = BeanType.of(BeanGenerator.generate(this.properties));
+    this.writer = BeanWriter.createWithBean(this.beanType, this.converter, new Messages());
+
+    this.stringProperty = BeanGenerator.lastProperty(this.properties, 0);
+    this.intProperty = BeanGenerator.lastProperty(this.properties, 1);
+    this.arrayProperty = BeanGenerator.lastProperty(this.properties, 2);
+    this.mapProperty = BeanGenerator.lastProperty(this.properties, 3);
+
+    this.mapValue.put("key", "value");
+
+    this.constructorValues.put("p0", "text");
+    this.constructorValues.put("p1", "123");
+
+    // The second constructor parameter (int) cannot be converted from p4, so setters will be used instead:
+    this.fallbackValues.put("p0", "text");
+    this.fallbackValues.put("p4", "text");
+
+    for (int i = 0; i < this.properties; i += 4) {
+      this.setterValues.put("p" + i, "text");
+      if (i + 1 < this.properties) {
+        this.setterValues.put("p" + (i + 1), Integer.toString(i));
+      }
+    }
+  }
+
+  /**
+   * Writes a <code>String</code> value to a <code>String</code> property.
+   *
+   * @return The bean.
+   */
+  @Benchmark
+  public final Object setExactType() {
+    this.writer.setProperty(this.stringProperty, "text", null);
+    return this.writer.getBean();
+  }
+
+  /**
+   * Writes a <code>String</code> value to an <code>int</code> property (with conversion).
+   *
+   * @return The bean.
+   */
+  @Benchmark
+  public final Object setConverted() {
+    this.writer.setProperty(this.intProperty, "123", null);
+    return this.writer.getBean();
+  }
+
+  /**
+   * Writes a <code>List</code> value to an array property.
+   *
+   * @return The bean.
+   */
+  @Benchmark
+  public final Object setListAsArray() {
+    this.writer.setProperty(this.arrayProperty, this.listValue, String.class);
+    return this.writer.getBean();
+  }
+
+  /**
+   * Writes a <code>Map</code> value to a <code>Map</code> property.
+   *
+   * @return The bean.
+   */
+  @Benchmark
+  public final Object setMap() {
+    this.writer.setProperty(this.mapProperty, this.mapValue, null);
+    return this.writer.getBean();
+  }
+
+  /**
+   * Recreates the bean using its constructor.
+   *
+   * @return The bean.
+   */
+  @Benchmark
+  public final Object reconstructWithConstructor() {
+    BeanWriter<?> beanWriter = newWriter();
+    beanWriter.reconstruct(this.constructorParams, this.constructorValues);
+    return beanWriter.getBean();
+  }
+
+  /**
+   * Recreates the bean using its default constructor and setters, after the constructor with parameters fails.
+   *
+   * @return The bean.
+   */
+  @Benchmark
+  public final Object reconstructWithFallback() {
+    BeanWriter<?> beanWriter = newWriter();
+    beanWriter.reconstruct(this.fallbackParams, this.fallbackValues);
+    return beanWriter.getBean();
+  }
+
+  /**
+   * Recreates the bean using its default constructor and writes half of the properties using setters.
+   *
+   * @return The bean.
+   */
+  @Benchmark
+  public final Object reconstructWithSetters() {
+    BeanWriter<?> beanWriter = newWriter();
+    beanWriter.reconstruct(this.noParams, this.setterValues);
+    return beanWriter.getBean();
+  }
+
+  /**
+   * Constructs a bean using its constructor with parameters.
+   *
+   * @return The constructed bean.
+   */
+  @Benchmark
+  public final Object construct() {
+    return newWriter().construct(this.beanType.getBeanClass(), this.constructorParams, this.constructorValues);
+  }
+
+  /**
+   * Constructs a bean using its constructor with parameters, and writes it to a property of another bean.
+   *
+   * @return The bean with the constructed property value.
+   */
+  @Benchmark
+  public final Object constructorWriter() {
+    this.constructorWriter.write(this.writer, this.constructorValues, null);
+    return this.writer.getBean();
+  }
+
+  private BeanWriter<?> newWriter() {
+    return BeanWriter.create(this.beanType, this.converter, new Messages());
+  }
+
+}
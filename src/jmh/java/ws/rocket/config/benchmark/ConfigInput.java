@@ -0,0 +1,158 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+/**
+ * Generates configuration file content for benchmarks. The content consists of sections named <code>section0</code>,
+ * <code>section1</code>, etc., each containing about the same amount of <code>key = value</code> lines (and comments).
+ * The generated content is always the same for the same parameters.
+ *
+ * @author Martti Tamm
+ */
+public final class ConfigInput {
+
+  private static final String KEY_CHARS = "abcdefghijklmnopqrstuvwxyz";
+
+  private static final int MIN_LINE_LENGTH = 16;
+
+  private static final String VALUE_CHARS = KEY_CHARS + "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 ./:-_";
+
+  /**
+   * Parses a size description, such as <code>1KB</code>, <code>1MB</code>, or <code>100MB</code>.
+   *
+   * @param size The size description.
+   * @return The size in bytes.
+   */
+  public static int parseSize(String size) {
+    String value = size.trim().toUpperCase();
+    if (value.endsWith("KB")) {
+      return Integer.parseInt(value.substring(0, value.length() - 2)) * 1024;
+    } else if (value.endsWith("MB")) {
+      return Integer.parseInt(value.substring(0, value.length() - 2)) * 1024 * 1024;
+    }
+    return Integer.parseInt(value);
+  }
+
+  /**
+   * Generates configuration file content of exactly the given size. The size is divided evenly between the sections,
+   * and each section starts with a <code>key = value</code> line, followed by lines of the given length. The last line
+   * of a section is made longer to fill the share of the section.
+   *
+   * @param size The size of the content in bytes.
+   * @param sections The amount of sections (at least one).
+   * @param lineLength The length of a line without the line break (at least 16).
+   * @param commentRatio The ratio (from 0 to 1) of lines with comments: half of them are comment lines, the other half
+   *                     are value lines with a trailing comment.
+   * @return The generated content.
+   * @throws IllegalArgumentException When the size cannot hold a header and a value line for every section.
+   */
+  public static byte[] generate(int size, int sections, int lineLength, double commentRatio) {
+    if (sections < 1 || lineLength < MIN_LINE_LENGTH) {
+      throw new IllegalArgumentException("Expected at least one section and line length of at least "
+          + MIN_LINE_LENGTH);
+    }
+
+    long minSize = 0;
+    for (int section = 0; section < sections; section++) {
+      minSize += header(section).length() + 1 + lineLength + 1;
+    }
+
+    if (size < minSize) {
+      throw new IllegalArgumentException("Size " + size + " cannot hold " + sections + " sections with lines of "
+          + lineLength + " characters (at least " + minSize + " bytes needed)");
+    }
+
+    Random random = new Random(size * 31L + sections * 17L + lineLength);
+    ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+    StringBuilder line = new StringBuilder(lineLength * 2 + 1);
+
+    for (int section = 0; section < sections; section++) {
+      int budget = (size - out.size()) / (sections - section);
+
+      write(out, line.append(header(section)));
+      budget -= header(section).length() + 1;
+
+      for (int i = 0; budget > 0; i++) {
+        int length = budget >= 2 * (lineLength + 1) ? lineLength : budget - 1;
+        double kind = i == 0 ? 1 : random.nextDouble();
+
+        appendLine(line, random, i, length, kind, commentRatio);
+        write(out, line);
+        budget -= length + 1;
+      }
+    }
+
+    return out.toByteArray();
+  }
+
+  /**
+   * Provides the names of the sections in the content generated by {@link #generate(int, int, int, double)}.
+   *
+   * @param sections The amount of sections.
+   * @return The section names.
+   */
+  public static String[] sectionNames(int sections) {
+    String[] names = new String[sections];
+    for (int i = 0; i < sections; i++) {
+      names[i] = "section" + i;
+    }
+    return names;
+  }
+
+  private static String header(int section) {
+    return "[section" + section + "]";
+  }
+
+  private static void appendLine(StringBuilder line, Random random, int index, int length, double kind,
+      double commentRatio) {
+    if (kind < commentRatio / 2) {
+      line.append("# ");
+      append(line, random, VALUE_CHARS, length - 2);
+    } else {
+      line.append('k').append(Integer.toString(index, Character.MAX_RADIX)).append(" = ");
+      int valueLength = length - line.length();
+
+      if (kind < commentRatio) {
+        int commentLength = (valueLength - 3) / 2;
+        append(line, random, VALUE_CHARS, valueLength - 3 - commentLength);
+        line.append(" # ");
+        append(line, random, VALUE_CHARS, commentLength);
+      } else {
+        append(line, random, VALUE_CHARS, valueLength);
+      }
+    }
+  }
+
+  private static void append(StringBuilder line, Random random, String chars, int length) {
+    for (int i = 0; i < length; i++) {
+      line.append(chars.charAt(random.nextInt(chars.length())));
+    }
+  }
+
+  private static void write(ByteArrayOutputStream out, StringBuilder line) {
+    byte[] bytes = line.append('\n').toString().getBytes();
+    out.write(bytes, 0, bytes.length);
+    line.setLength(0);
+  }
+
+  private ConfigInput() {
+  }
+
+}
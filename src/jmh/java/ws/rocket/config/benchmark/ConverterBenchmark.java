@@ -0,0 +1,227 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config.benchmark;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ws.rocket.config.section.SectionValueException;
+import ws.rocket.config.section.value.Conversion;
+import ws.rocket.config.section.value.DefaultConverter;
+
+/**
+ * Measures <code>DefaultConverter</code> conversions of every supported kind of target type, with valid and invalid
+ * values. The converter is shared by all benchmark threads: the <code>contended</code> benchmark measures the same
+ * conversion from several threads at the same time.
+ * <p>
+ * The invalid values measure the failure paths: {@link #convert()} catches the thrown exception, while
+ * {@link #tryConvert()} receives the failure as a return value. Conversions to <code>String</code>, <code>char</code>,
+ * <code>boolean</code>, and <code>Package</code> do not fail, so their invalid values measure the fallback results.
+ *
+ * @author Martti Tamm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+  /**
+   * The conversion cases: a target type with a valid and an invalid value.
+   */
+  public enum Case {
+
+    /**
+     * No conversion needed.
+     */
+    STRING(String.class, "text", "text"),
+
+    /**
+     * A primitive number.
+     */
+    INT(int.class, "1024", "10x24"),
+
+    /**
+     * A primitive number.
+     */
+    LONG(long.class, "-1234567890123", "12345678901234567890123"),
+
+    /**
+     * A primitive number.
+     */
+    SHORT(short.class, "-1025", "70000"),
+
+    /**
+     * A primitive number.
+     */
+    BYTE(byte.class, "127", "128"),
+
+    /**
+     * A primitive floating-point number.
+     */
+    DOUBLE(double.class, "3.14159", "3,14159"),
+
+    /**
+     * A primitive floating-point number.
+     */
+    FLOAT(float.class, "2.5e3", "2.5f3x"),
+
+    /**
+     * A primitive character.
+     */
+    CHAR(char.class, "y", ""),
+
+    /**
+     * A primitive Boolean.
+     */
+    BOOLEAN(boolean.class, "true", "maybe"),
+
+    /**
+     * A big decimal number.
+     */
+    BIG_DECIMAL(BigDecimal.class, "12345.678901234567890", "12345,67"),
+
+    /**
+     * A big integer number.
+     */
+    BIG_INTEGER(BigInteger.class, "123456789012345678901234567890", "12345x"),
+
+    /**
+     * A URI.
+     */
+    URI_VALUE(URI.class, "http://example.com/path?query=1", "http://example.com/bad path"),
+
+    /**
+     * A URL.
+     */
+    URL_VALUE(URL.class, "http://example.com/path?query=1", "unknown://example.com"),
+
+    /**
+     * An enumeration constant.
+     */
+    ENUM(TimeUnit.class, "SECONDS", "EONS"),
+
+    /**
+     * A date and time.
+     */
+    DATE(Date.class, "2024-01-31T10:15:00", "31.01.2024"),
+
+    /**
+     * A package.
+     */
+    PACKAGE(Package.class, "java.lang", "no.such.pkg"),
+
+    /**
+     * A class (resolved by name).
+     */
+    CLASS(Class.class, "java.lang.String", "no.such.Type"),
+
+    /**
+     * An instance of a class (resolved by name) created using its default constructor.
+     */
+    INSTANCE(List.class, "java.util.ArrayList", "java.util.HashMap");
+
+    private final Class<?> targetType;
+
+    private final String validValue;
+
+    private final String invalidValue;
+
+    Case(Class<?> targetType, String validValue, String invalidValue) {
+      this.targetType = targetType;
+      this.validValue = validValue;
+      this.invalidValue = invalidValue;
+    }
+  }
+
+  @Param({ "STRING", "INT", "LONG", "SHORT", "BYTE", "DOUBLE", "FLOAT", "CHAR", "BOOLEAN", "BIG_DECIMAL",
+    "BIG_INTEGER", "URI_VALUE", "URL_VALUE", "ENUM", "DATE", "PACKAGE", "CLASS", "INSTANCE" })
+  private String type;
+
+  @Param({ "true", "false" })
+  private boolean valid;
+
+  private final DefaultConverter converter = new DefaultConverter();
+
+  private Class<?> targetType;
+
+  private String value;
+
+  /**
+   * Resolves the conversion case.
+   */
+  @Setup
+  public final void setUp() {
+    Case conversion = Case.valueOf(this.type);
+    this.targetType = conversion.targetType;
+    this.value = this.valid ? conversion.validValue : conversion.invalidValue;
+  }
+
+  /**
+   * Converts the value, catching the failure.
+   *
+   * @return The converted value or the failure.
+   */
+  @Benchmark
+  public final Object convert() {
+    try {
+      return this.converter.convert(this.value, this.targetType);
+    } catch (SectionValueException e) {
+      return e;
+    }
+  }
+
+  /**
+   * Converts the value from several threads at the same time.
+   *
+   * @return The converted value or the failure.
+   */
+  @Benchmark
+  @Threads(4)
+  public final Object contended() {
+    return convert();
+  }
+
+  /**
+   * Converts the value without throwing the failure.
+   *
+   * @return The conversion outcome.
+   */
+  @Benchmark
+  public final Conversion tryConvert() {
+    return Conversion.tryConvert(this.converter, this.value, this.targetType);
+  }
+
+}
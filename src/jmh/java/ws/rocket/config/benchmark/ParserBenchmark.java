@@ -0,0 +1,209 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ws.rocket.config.ConfigException;
+import ws.rocket.config.ConfigModel;
+import ws.rocket.config.bean.BeanContext;
+import ws.rocket.config.reader.ReaderContext;
+import ws.rocket.config.reader.StreamReader;
+import ws.rocket.config.section.value.DefaultConverter;
+
+/**
+ * Measures the throughput of tokenizing and parsing generated configuration content of various sizes, comment
+ * densities, line lengths, and section counts.
+ * <p>
+ * Besides operations per second, the benchmarks report the <code>bytes</code> counter, which is the throughput in
+ * bytes per second (divide by 1048576 for MB/s). The <code>jmh</code> Gradle task runs the benchmarks with the GC
+ * profiler: divide <code>gc.alloc.rate.norm</code> (bytes per operation) by the input size to get the allocation per
+ * parsed byte.
+ * <p>
+ * The input has exactly the stated size, so it must hold a header and a value line for every section: all the default
+ * parameter combinations do. Smaller inputs can be measured with fewer and shorter lines, for example,
+ * <code>-PjmhArgs="ParserBenchmark -p size=1KB -p sections=10 -p lineLength=16"</code>; combinations that do not fit
+ * fail in setup.
+ *
+ * @author Martti Tamm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ParserBenchmark {
+
+  @Param({ "1MB", "100MB" })
+  private String size;
+
+  @Param({ "0.0", "0.5" })
+  private double commentRatio;
+
+  @Param({ "16", "256" })
+  private int lineLength;
+
+  @Param({ "10", "1000" })
+  private int sections;
+
+  private byte[] input;
+
+  private ConfigModel<Config> model;
+
+  private BeanContext<Config> beanContext;
+
+  /**
+   * Generates the input, and builds the model for it.
+   */
+  @Setup
+  public final void setUp() {
+    this.input = ConfigInput.generate(ConfigInput.parseSize(this.size), this.sections, this.lineLength,
+        this.commentRatio);
+
+    ConfigModel.ConfigModelBuilder<Config> builder = ConfigModel.expect(Config.class);
+    for (String name : ConfigInput.sectionNames(this.sections)) {
+      builder.section(name).ofMap(String.class).storeIn("values");
+    }
+
+    this.model = builder.ready();
+    this.beanContext = new BeanContext<Config>(Config.class, new DefaultConverter());
+  }
+
+  /**
+   * Reads all the lines of the input.
+   *
+   * @param counter The counter of processed bytes.
+   * @return The amount of lines read.
+   * @throws IOException Not expected.
+   */
+  @Benchmark
+  public final int readLine(ByteCounter counter) throws IOException {
+    StreamReader reader = new StreamReader(new ByteArrayInputStream(this.input));
+    int lines = 0;
+    while (reader.readLine() != null) {
+      lines++;
+    }
+    counter.add(this.input.length);
+    return lines;
+  }
+
+  /**
+   * Reads the input section by section, ignoring the section content.
+   *
+   * @param counter The counter of processed bytes.
+   * @param blackhole Consumer of the section names.
+   * @throws ConfigException Not expected.
+   * @throws IOException Not expected.
+   */
+  @Benchmark
+  public final void toNextSection(ByteCounter counter, Blackhole blackhole) throws ConfigException, IOException {
+    ReaderContext<Config> ctx = new ReaderContext<Config>(this.beanContext, true, new ByteArrayInputStream(this.input));
+    while (ctx.toNextSection().inSection() != null) {
+      blackhole.consume(ctx.inSection());
+    }
+    counter.add(this.input.length);
+  }
+
+  /**
+   * Parses the input into a configuration bean.
+   *
+   * @param counter The counter of processed bytes.
+   * @return The parsed configuration bean.
+   * @throws ConfigException Not expected.
+   */
+  @Benchmark
+  public final Config parse(ByteCounter counter) throws ConfigException {
+    Config config = this.model.parse(new ByteArrayInputStream(this.input));
+    counter.add(this.input.length);
+    return config;
+  }
+
+  /**
+   * Counts the processed bytes, so that JMH reports them as a rate (bytes per second).
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class ByteCounter {
+
+    private long bytes;
+
+    /**
+     * Resets the counter before each iteration.
+     */
+    @Setup(Level.Iteration)
+    public final void reset() {
+      this.bytes = 0;
+    }
+
+    /**
+     * Provides the amount of processed bytes (reported by JMH as bytes per second).
+     *
+     * @return The amount of processed bytes.
+     */
+    public final long bytes() {
+      return this.bytes;
+    }
+
+    final void add(long processed) {
+      this.bytes += processed;
+    }
+  }
+
+  /**
+   * The configuration bean of the benchmark.
+   */
+  public static final class Config {
+
+    private Map<String, String> values;
+
+    /**
+     * Provides the values of the last parsed section.
+     *
+     * @return The section values.
+     */
+    public Map<String, String> getValues() {
+      return this.values;
+    }
+
+    /**
+     * Sets the values of a section.
+     *
+     * @param values The section values.
+     */
+    public void setValues(Map<String, String> values) {
+      this.values = values;
+    }
+  }
+
+}
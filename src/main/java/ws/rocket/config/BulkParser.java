@@ -0,0 +1,183 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Helper for parsing many configuration files in parallel, one task per file.
+ *
+ * @author Martti Tamm
+ */
+final class BulkParser {
+
+  private BulkParser() {
+  }
+
+  /**
+   * The parsing of a single file in bulk.
+   *
+   * @param <R> The type of the parsed configuration.
+   */
+  interface FileParser<R> {
+
+    /**
+     * Parses the given file. Problems must be reported in the returned result, not thrown.
+     *
+     * @param file The file to parse.
+     * @return The parse result.
+     */
+    ParseResult<R> parse(File file);
+  }
+
+  /**
+   * Creates a new executor for parsing files. On a Java runtime that supports virtual threads, a new virtual thread is
+   * used per file. Otherwise, a fixed thread pool with a thread per available processor is created.
+   *
+   * @return A new executor, which must be shut down by the caller.
+   */
+  static ExecutorService newExecutor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (Exception e) {
+      return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+  }
+
+  /**
+   * Parses all given files using the given executor, and returns the results in the same order as the files.
+   *
+   * @param <R> The type of the parsed configuration.
+   * @param files The files to parse (required, without null elements).
+   * @param executor The executor to use for parsing (required).
+   * @param parser The parser of a single file.
+   * @return The parse results, one per file.
+   */
+  static <R> List<ParseResult<R>> parseAll(Collection<File> files, ExecutorService executor,
+      final FileParser<R> parser) {
+    if (files == null) {
+      throw new NullPointerException("Given collection of files is a null reference");
+    } else if (executor == null) {
+      throw new NullPointerException("Given executor is a null reference");
+    }
+
+    List<File> fileList = new ArrayList<File>(files);
+    for (File file : fileList) {
+      if (file == null) {
+        throw new NullPointerException("Got a null reference instead of a configuration file");
+      }
+    }
+
+    List<Future<ParseResult<R>>> tasks = new ArrayList<Future<ParseResult<R>>>(fileList.size());
+    for (final File file : fileList) {
+      tasks.add(executor.submit(new Callable<ParseResult<R>>() {
+        @Override
+        public ParseResult<R> call() {
+          return parser.parse(file);
+        }
+      }));
+    }
+
+    List<ParseResult<R>> results = new ArrayList<ParseResult<R>>(fileList.size());
+    boolean interrupted = false;
+
+    for (int i = 0; i < tasks.size(); i++) {
+      Future<ParseResult<R>> task = tasks.get(i);
+
+      if (interrupted) {
+        task.cancel(true);
+        results.add(BulkParser.<R>failure(fileList.get(i), "Parsing was interrupted"));
+        continue;
+      }
+
+      try {
+        results.add(task.get());
+      } catch (InterruptedException e) {
+        interrupted = true;
+        task.cancel(true);
+        results.add(BulkParser.<R>failure(fileList.get(i), "Parsing was interrupted"));
+      } catch (ExecutionException e) {
+        results.add(BulkParser.<R>failure(fileList.get(i), "Parsing failed: " + e.getCause()));
+      }
+    }
+
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+
+    return results;
+  }
+
+  /**
+   * Parses all given files using a new default executor, which will be shut down once the files are parsed.
+   *
+   * @param <R> The type of the parsed configuration.
+   * @param files The files to parse (required, without null elements).
+   * @param parser The parser of a single file.
+   * @return The parse results, one per file.
+   * @see #newExecutor()
+   */
+  static <R> List<ParseResult<R>> parseAll(Collection<File> files, FileParser<R> parser) {
+    ExecutorService executor = newExecutor();
+    try {
+      return parseAll(files, executor, parser);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Closes the stream of a file that could not be parsed. A failure to close the stream is added to the messages.
+   *
+   * @param input The stream to close.
+   * @param msgs The messages of the file.
+   */
+  static void close(InputStream input, Messages msgs) {
+    try {
+      input.close();
+    } catch (IOException e) {
+      msgs.addError("While closing configuration stream: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Creates a failed parse result for the file with the given error message.
+   *
+   * @param <R> The type of the parsed configuration.
+   * @param file The file that was not parsed.
+   * @param error The error message.
+   * @return The parse result.
+   */
+  static <R> ParseResult<R> failure(File file, String error) {
+    Messages msgs = new Messages();
+    msgs.addError(error);
+    return new ParseResult<R>(file, null, msgs);
+  }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config;
+
+import java.util.Arrays;
+
+/**
+ * A parse listener that hands the measurements over to several listeners, in the given order. This enables, for
+ * example, a {@link ConfigMonitor} and the {@link FlightRecorderListener} to watch the same model:
+ *
+ * <pre>
+ * model.listener(new CompositeParseListener(monitor, FlightRecorderListener.getInstance()));
+ * </pre>
+ *
+ * @author Martti Tamm
+ */
+public final class CompositeParseListener implements ParseListener {
+
+  private final ParseListener[] listeners;
+
+  /**
+   * Creates a new listener that hands the measurements over to the given listeners.
+   *
+   * @param listeners The receivers of parse measurements (required, without null elements).
+   */
+  public CompositeParseListener(ParseListener... listeners) {
+    if (listeners == null) {
+      throw new NullPointerException("Given parse listeners is a null reference");
+    }
+
+    for (ParseListener listener : listeners) {
+      if (listener == null) {
+        throw new NullPointerException("Given parse listeners contains a null reference");
+      }
+    }
+
+    this.listeners = listeners.clone();
+  }
+
+  /**
+   * Informs whether given listener receives the measurements through this listener, either directly or through a
+   * nested composite listener.
+   *
+   * @param listener The listener to look for.
+   * @return A Boolean that is true when the listener is included.
+   */
+  public boolean contains(ParseListener listener) {
+    for (ParseListener included : this.listeners) {
+      if (included == listener
+          || included instanceof CompositeParseListener && ((CompositeParseListener) included).contains(listener)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void parseStarted() {
+    for (ParseListener listener : this.listeners) {
+      listener.parseStarted();
+    }
+  }
+
+  @Override
+  public void sectionReadStarted(String section) {
+    for (ParseListener listener : this.listeners) {
+      listener.sectionReadStarted(section);
+    }
+  }
+
+  @Override
+  public void sectionWriteStarted(String section) {
+    for (ParseListener listener : this.listeners) {
+      listener.sectionWriteStarted(section);
+    }
+  }
+
+  @Override
+  public void sectionRead(String section, int lines, long bytes, long nanos) {
+    for (ParseListener listener : this.listeners) {
+      listener.sectionRead(section, lines, bytes, nanos);
+    }
+  }
+
+  @Override
+  public void sectionWritten(String section, long nanos) {
+    for (ParseListener listener : this.listeners) {
+      listener.sectionWritten(section, nanos);
+    }
+  }
+
+  @Override
+  public void valueConverted(Class<?> targetType, boolean success) {
+    for (ParseListener listener : this.listeners) {
+      listener.valueConverted(targetType, success);
+    }
+  }
+
+  @Override
+  public void propertySet(String property) {
+    for (ParseListener listener : this.listeners) {
+      listener.propertySet(property);
+    }
+  }
+
+  @Override
+  public void parseCompleted(long nanos, long allocatedBytes, Messages messages) {
+    for (ParseListener listener : this.listeners) {
+      listener.parseCompleted(nanos, allocatedBytes, messages);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "CompositeParseListener" + Arrays.toString(this.listeners);
+  }
+
+}
@@ -16,14 +16,23 @@
 
 package ws.rocket.config;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.io.IOException;
 import java.io.PrintStream;
 import ws.rocket.config.reader.ReaderContext;
+import ws.rocket.config.bean.BeanAccess;
 import ws.rocket.config.bean.BeanContext;
 import ws.rocket.config.bean.ModelException;
 import ws.rocket.config.reader.StreamWriter;
@@ -44,16 +53,17 @@ import ws.rocket.config.section.write.SimplePropertyWriter;
  * <p>
  * The configuration files consist of sections with name (in square brackets) and configuration lines per section. A
  * <code>SectionReader</code> attempts to interpret each non-blank line in corresponding section, tries to convert it
- * into desired runtime type and stores it in its buffer. Typically a section settings line either contains a full value
- * or a key-value pair (separated by equals-sign). Therefore, the values of a section are stored in a list or map (in
- * the reader object).
+ * into desired runtime type and stores it in a collection. Typically a section settings line either contains a full
+ * value or a key-value pair (separated by equals-sign). Therefore, the values of a section are stored in a list or map
+ * (created by the reader for each parsed section).
  * <p>
  * Once a section ends in the configuration file, the parsed data is immediately stored in the configuration bean. This
  * is handled by <code>SectionWriter</code> that uses <code>BeanWriter</code> for writing data to target bean.
  * <p>
  * All in all, configuration consists of sections with unique names. Their order must match in files (although the file
- * may omit some of them). Besides name, each section also has a section reader (interprets lines) and a section writer
- * (knows where to store collected information in the configuration data bean).
+ * may omit some of them), unless the model is built to accept sections in any order. Besides name, each section also
+ * has a section reader (interprets lines) and a section writer (knows where to store collected information in the
+ * configuration data bean).
  * <p>
  * Configuration model class serves three purposes:
  * <ol>
@@ -61,6 +71,9 @@ import ws.rocket.config.section.write.SimplePropertyWriter;
  * <li>enables elementary validation of the constructed model</li>
  * <li>enables configuration file parsing</li>
  * </ol>
+ * <p>
+ * The model keeps no parsing state: a model (along with a thread-safe value converter, such as
+ * <code>DefaultConverter</code>) may be shared and used for parsing by several threads at the same time.
  *
  * @param <T> The target type that will hold the read configuration.
  *
@@ -91,13 +104,52 @@ public final class ConfigModel<T> {
     return new ConfigModelBuilder<T>(confInstanceType, converter);
   }
 
+  /**
+   * The factory method for constructing a new model for given configuration bean type. With
+   * <code>BeanAccess.FIELDS</code>, the configuration bean does not need setter methods for its properties, as the
+   * values will be written directly to the bean fields.
+   *
+   * @param <T>              The type of the configuration bean.
+   * @param confInstanceType The type of the configuration bean.
+   * @param converter        A custom value converter to use for <code>String</code> to runtime type value conversions.
+   * @param access           The way configuration bean properties are written.
+   * @return The builder to continue with describing the sections.
+   */
+  public static <T> ConfigModelBuilder<T> expect(Class<T> confInstanceType, ValueConverter converter,
+      BeanAccess access) {
+    return new ConfigModelBuilder<T>(confInstanceType, converter, access);
+  }
+
   private final BeanContext<T> beanFactory;
 
   private final Section[] sections;
 
-  private ConfigModel(BeanContext<T> beanFactory, Section[] section) {
+  private final Map<String, Integer> sectionIndex;
+
+  private final boolean anyOrder;
+
+  private final int errorLimit;
+
+  private final boolean warningsEnabled;
+
+  private final int warningLimit;
+
+  private final ParseListener listener;
+
+  private ConfigModel(BeanContext<T> beanFactory, Section[] section, boolean anyOrder, int errorLimit,
+      boolean warningsEnabled, int warningLimit, ParseListener listener) {
     this.beanFactory = beanFactory;
     this.sections = section;
+    this.anyOrder = anyOrder;
+    this.errorLimit = errorLimit;
+    this.warningsEnabled = warningsEnabled;
+    this.warningLimit = warningLimit;
+    this.listener = listener;
+    this.sectionIndex = new HashMap<String, Integer>(section.length * 2);
+
+    for (int i = 0; i < section.length; i++) {
+      this.sectionIndex.put(section[i].getName(), i);
+    }
   }
 
   /**
@@ -109,6 +161,17 @@ public final class ConfigModel<T> {
     return Arrays.copyOf(this.sections, this.sections.length);
   }
 
+  /**
+   * Informative method: tells whether the sections in configuration stream may be in any order.
+   *
+   * @return A Boolean that is true when the sections may be in any order, and false when the sections must be in the
+   *         same order as in this model.
+   * @see ConfigModelBuilder#anyOrder()
+   */
+  public boolean isAnyOrder() {
+    return this.anyOrder;
+  }
+
   /**
    * Informative method: provides the bean type that will be returned after conversion.
    *
@@ -123,30 +186,161 @@ public final class ConfigModel<T> {
    * this model. Serious conflicts in stream can eventually trigger ConfigException, while minor conflicts (bad setting
    * lines) might just be logged as warnings.
    * <p>
-   * The sections in the configuration stream must be ordered the same way as in this model, however, sections in the
-   * stream may omit some of those in the model. Duplicate sections or bad section names will raise ConfigException.
+   * The sections in the configuration stream must be ordered the same way as in this model (unless the model was
+   * built to accept any order), however, sections in the stream may omit some of those in the model. Duplicate
+   * sections or bad section names will raise ConfigException.
    *
    * @param input Configuration stream. When null then ConfigException will be raised.
    * @return A new instance of configuration object with data set as defined in the stream.
    * @throws ConfigException Contains error and possibly also warning messages from parsing the stream.
    */
   public T parse(InputStream input) throws ConfigException {
-    ReaderContext<T> ctx = new ReaderContext<T>(this.beanFactory, true, input);
+    return parse(input, null, this.listener);
+  }
+
+  /**
+   * Parses the input stream like {@link #parse(InputStream)}, and reports the measurements of parsing (time spent per
+   * section, value conversions, written properties, and allocated bytes) to the given listener. The measurements are
+   * reported also when parsing fails. The given listener is used instead of the listener of this model.
+   *
+   * @param input Configuration stream. When null then ConfigException will be raised.
+   * @param parseListener The receiver of parse measurements (required).
+   * @return A new instance of configuration object with data set as defined in the stream.
+   * @throws ConfigException Contains error and possibly also warning messages from parsing the stream.
+   * @see ParseStats
+   */
+  public T parse(InputStream input, ParseListener parseListener) throws ConfigException {
+    if (parseListener == null) {
+      throw new NullPointerException("Given parse listener is a null reference");
+    }
+    return parse(input, null, parseListener);
+  }
 
+  /**
+   * Parses only the given sections from the input stream, as defined in this model. Other sections in the stream
+   * (whether defined in this model or not) are skipped without interpreting their content, therefore they are also not
+   * validated. The given sections are parsed the same way as in {@link #parse(InputStream)}. Reading the stream stops
+   * once all the given sections have been parsed, so the rest of the stream is not even scanned.
+   *
+   * @param input Configuration stream. When null then ConfigException will be raised.
+   * @param sectionNames The names of the sections to parse. Each must be defined in this model.
+   * @return A new instance of configuration object with data set as defined in the given sections of the stream.
+   * @throws ConfigException Contains error and possibly also warning messages from parsing the stream.
+   */
+  public T parse(InputStream input, String... sectionNames) throws ConfigException {
+    if (sectionNames == null) {
+      throw new NullPointerException("Got a null reference for an array of section names");
+    }
+
+    boolean[] selected = new boolean[this.sections.length];
+    for (String sectionName : sectionNames) {
+      Integer index = this.sectionIndex.get(sectionName);
+      if (index == null) {
+        throw new IllegalArgumentException("Section [" + sectionName + "] is not defined in this model");
+      }
+      selected[index] = true;
+    }
+
+    return parse(input, selected, this.listener);
+  }
+
+  /**
+   * Parses the given configuration files in parallel, as defined in this model. The files are parsed using a new
+   * executor that uses virtual threads (when supported by the Java runtime) or a thread per available processor. The
+   * executor is shut down once all files are parsed.
+   * <p>
+   * Problems with a file do not affect parsing other files: they are reported in the result of that file.
+   *
+   * @param files The configuration files to parse.
+   * @return The parse results in the same order as the given files.
+   * @see #parse(InputStream)
+   */
+  public List<ParseResult<T>> parseAll(Collection<File> files) {
+    return BulkParser.parseAll(files, new FileParserImpl());
+  }
+
+  /**
+   * Parses the given configuration files in parallel, as defined in this model, using the given executor. The executor
+   * is not shut down by this method.
+   * <p>
+   * Problems with a file do not affect parsing other files: they are reported in the result of that file.
+   *
+   * @param files The configuration files to parse.
+   * @param executor The executor to use for parsing the files.
+   * @return The parse results in the same order as the given files.
+   * @see #parse(InputStream)
+   */
+  public List<ParseResult<T>> parseAll(Collection<File> files, ExecutorService executor) {
+    return BulkParser.parseAll(files, executor, new FileParserImpl());
+  }
+
+  /**
+   * Provides the listener that receives the measurements of parsing with this model.
+   *
+   * @return The parse listener, or <code>null</code> when not set.
+   * @see ConfigModelBuilder#listener(ParseListener)
+   */
+  public ParseListener getListener() {
+    return this.listener;
+  }
+
+  ValueConverter getValueConverter() {
+    return this.beanFactory.getValueConverter();
+  }
+
+  private T parse(InputStream input, boolean[] selected, ParseListener parseListener) throws ConfigException {
+    Messages msgs = newMessages();
+    ParseTimer timer = new ParseTimer(parseListener);
+    try {
+      ReaderContext<T> ctx = new ReaderContext<T>(this.beanFactory, true, input, msgs, parseListener);
+      read(ctx, input, selected);
+      return ctx.checkErrors().getBeanWriter().getBean();
+    } finally {
+      timer.complete(msgs);
+    }
+  }
+
+  private Messages newMessages() {
+    return new Messages(this.errorLimit, this.warningsEnabled, this.warningLimit);
+  }
+
+  private static int countSelected(boolean[] selected) {
+    if (selected == null) {
+      return -1;
+    }
+
+    int count = 0;
+    for (boolean section : selected) {
+      if (section) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private void read(ReaderContext<T> ctx, InputStream input, boolean[] selected) {
     try {
       ctx.toNextSection();
 
-      List<Section> expectedSections = new ArrayList<Section>(Arrays.asList(this.sections));
+      boolean[] parsedSections = new boolean[this.sections.length];
+      int nextIndex = 0;
+      int remaining = countSelected(selected);
 
-      while (ctx.inSection() != null) {
+      while (ctx.inSection() != null && !ctx.isStopped() && remaining != 0) {
+        Integer index = this.sectionIndex.get(ctx.inSection());
         boolean parsed = false;
 
-        for (int i = 0; i < expectedSections.size(); i++) {
-          if (expectedSections.get(i).getName().equals(ctx.inSection())) {
-            expectedSections.get(i).parse(ctx);
-            expectedSections.subList(0, i + 1).clear();
-            parsed = true;
-            break;
+        if (selected != null && (index == null || !selected[index])) {
+          ctx.skipSection();
+          continue;
+        } else if (index != null && !parsedSections[index] && (this.anyOrder || index >= nextIndex)) {
+          this.sections[index].parse(ctx);
+          parsedSections[index] = true;
+          nextIndex = index + 1;
+          parsed = true;
+
+          if (selected != null) {
+            remaining--;
           }
         }
 
@@ -166,8 +360,6 @@ public final class ConfigModel<T> {
         ctx.log("While closing configuration stream", e);
       }
     }
-
-    return ctx.checkErrors().getBeanWriter().getBean();
   }
 
   /**
@@ -216,6 +408,16 @@ public final class ConfigModel<T> {
 
     private final FactoryImpl<T> factory = new FactoryImpl<T>(this);
 
+    private boolean anyOrder;
+
+    private int errorLimit;
+
+    private boolean warningsEnabled = true;
+
+    private int warningLimit;
+
+    private ParseListener listener;
+
     /**
      * Creates a new instance of model builder for given configuration bean type.
      *
@@ -223,12 +425,25 @@ public final class ConfigModel<T> {
      * @param valueConverter The value converter to use to convert <code>String</code> values to runtime types.
      */
     public ConfigModelBuilder(Class<T> type, ValueConverter valueConverter) {
+      this(type, valueConverter, BeanAccess.SETTERS);
+    }
+
+    /**
+     * Creates a new instance of model builder for given configuration bean type and property access.
+     *
+     * @param type           The class of the configuration bean (for creating an instance of it during parsing).
+     * @param valueConverter The value converter to use to convert <code>String</code> values to runtime types.
+     * @param access         The way configuration bean properties are written.
+     */
+    public ConfigModelBuilder(Class<T> type, ValueConverter valueConverter, BeanAccess access) {
       if (type == null) {
         throw new NullPointerException("Given configuration bean type is a null reference");
       } else if (valueConverter == null) {
         throw new NullPointerException("Given value converter is a null reference");
+      } else if (access == null) {
+        throw new NullPointerException("Given bean access is a null reference");
       }
-      this.beanFactory = new BeanContext<T>(type, valueConverter);
+      this.beanFactory = new BeanContext<T>(type, valueConverter, access);
       this.beanFactory.getValidator().requireEmptyConstructor();
     }
 
@@ -244,7 +459,7 @@ public final class ConfigModel<T> {
      * @param writer Section writer instance.
      * @return This model builder.
      */
-    public ConfigModelBuilder<T> section(String name, SectionReader reader, SectionWriter writer) {
+    public ConfigModelBuilder<T> section(String name, SectionReader<?> reader, SectionWriter writer) {
       validateSectionName(name);
       Section section = new Section(name.trim(), reader, writer);
       section.validate(this.beanFactory.getValidator());
@@ -263,13 +478,89 @@ public final class ConfigModel<T> {
       return this.factory.section(sectionName);
     }
 
+    /**
+     * Allows the sections to be in any order in configuration stream. By default, the sections must be in the same
+     * order as they are added to this builder. Duplicate sections are not allowed in either case.
+     *
+     * @return This model builder.
+     */
+    public ConfigModelBuilder<T> anyOrder() {
+      this.anyOrder = true;
+      return this;
+    }
+
+    /**
+     * Makes parsing stop at the first error. This is the same as <code>errorLimit(1)</code>.
+     *
+     * @return This model builder.
+     * @see #errorLimit(int)
+     */
+    public ConfigModelBuilder<T> failFast() {
+      return errorLimit(1);
+    }
+
+    /**
+     * Makes parsing stop once the given amount of errors has been logged. By default, there is no limit, and the
+     * configuration stream is always parsed till the end.
+     *
+     * @param maxErrors The maximum amount of errors. Zero means no limit.
+     * @return This model builder.
+     */
+    public ConfigModelBuilder<T> errorLimit(int maxErrors) {
+      if (maxErrors < 0) {
+        throw new IllegalArgumentException("Error limit must not be negative");
+      }
+      this.errorLimit = maxErrors;
+      return this;
+    }
+
+    /**
+     * Makes parsing ignore warnings, so that warning messages are not even composed.
+     *
+     * @return This model builder.
+     */
+    public ConfigModelBuilder<T> ignoreWarnings() {
+      this.warningsEnabled = false;
+      return this;
+    }
+
+    /**
+     * Limits the amount of warnings stored while parsing. The warnings over the limit are only counted per diagnostic
+     * code. By default, there is no limit.
+     *
+     * @param maxWarnings The maximum amount of warnings to store. Zero means no limit.
+     * @return This model builder.
+     */
+    public ConfigModelBuilder<T> warningLimit(int maxWarnings) {
+      if (maxWarnings < 0) {
+        throw new IllegalArgumentException("Warning limit must not be negative");
+      }
+      this.warningLimit = maxWarnings;
+      return this;
+    }
+
+    /**
+     * Sets the listener that receives the measurements of each parse done with the model. By default, no measurements
+     * are taken. Several listeners can be combined with {@link CompositeParseListener}.
+     *
+     * @param parseListener The receiver of parse measurements (may be null).
+     * @return This model builder.
+     * @see ConfigMonitor
+     * @see CompositeParseListener
+     */
+    public ConfigModelBuilder<T> listener(ParseListener parseListener) {
+      this.listener = parseListener;
+      return this;
+    }
+
     /**
      * Finalizes configuration model using the previously added sections.
      *
      * @return A new configuration model instance with defined sections.
      */
     public ConfigModel<T> ready() {
-      return new ConfigModel<T>(this.beanFactory, this.sections.toArray(new Section[this.sections.size()]));
+      return new ConfigModel<T>(this.beanFactory, this.sections.toArray(new Section[this.sections.size()]),
+          this.anyOrder, this.errorLimit, this.warningsEnabled, this.warningLimit, this.listener);
     }
 
     private void validateSectionName(String name) {
@@ -295,7 +586,7 @@ public final class ConfigModel<T> {
 
       private String currentSection;
 
-      private SectionReader currentReader;
+      private SectionReader<?> currentReader;
 
       private FactoryImpl(ConfigModelBuilder<T> builder) {
         this.builder = builder;
@@ -377,7 +668,7 @@ public final class ConfigModel<T> {
         return this;
       }
 
-      private FactoryImpl<T> updateReader(SectionReader reader) {
+      private FactoryImpl<T> updateReader(SectionReader<?> reader) {
         if (this.currentReader != null) {
           throw new RuntimeException("Cannot update reader when it's already set (in section ["
                   + this.currentReader + "]).");
@@ -542,4 +833,32 @@ public final class ConfigModel<T> {
 
   }
 
+  private final class FileParserImpl implements BulkParser.FileParser<T> {
+
+    @Override
+    public ParseResult<T> parse(File file) {
+      InputStream input;
+      try {
+        input = new BufferedInputStream(new FileInputStream(file));
+      } catch (FileNotFoundException e) {
+        return BulkParser.failure(file, "Could not open configuration file: " + e.getMessage());
+      }
+
+      Messages msgs = newMessages();
+      ParseTimer timer = new ParseTimer(ConfigModel.this.listener);
+      try {
+        ReaderContext<T> ctx = new ReaderContext<T>(ConfigModel.this.beanFactory, true, input, msgs,
+            ConfigModel.this.listener);
+        read(ctx, input, null);
+
+        return new ParseResult<T>(file, msgs.hasErrors() ? null : ctx.getBeanWriter().getBean(), msgs);
+      } catch (ConfigException e) {
+        BulkParser.close(input, e.getMessages());
+        return new ParseResult<T>(file, null, e.getMessages());
+      } finally {
+        timer.complete(msgs);
+      }
+    }
+  }
+
 }
@@ -0,0 +1,408 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import ws.rocket.config.section.value.MemoizingConverter;
+import ws.rocket.config.section.value.ValueConverter;
+
+/**
+ * A parse listener that collects configuration loading statistics of a model, and exposes them as a JMX MBean. The
+ * monitor is set as the listener of the model (possibly through {@link CompositeParseListener}), and attached to the
+ * model for the management operations:
+ *
+ * <pre>
+ * ConfigMonitor monitor = new ConfigMonitor("app");
+ * ConfigModel&lt;AppConfig&gt; model = ConfigModel.expect(AppConfig.class).listener(monitor)...ready();
+ * monitor.attach(model, configFile, reloadConsumer).register();
+ * </pre>
+ * <p>
+ * The {@link #reparse()} operation parses with the listener of the model, so other listeners of the model (e.g.
+ * {@link ParseStats}) also receive the measurements of reloads. When the monitor is not among the listeners of the
+ * model, it is added for the reload.
+ * <p>
+ * The MBean is registered to the platform MBean server with name <code>ws.rocket.config:type=ConfigMonitor,name=</code>
+ * followed by the monitor name. The monitor is thread-safe.
+ *
+ * @author Martti Tamm
+ */
+public final class ConfigMonitor implements ConfigMonitorMBean, ParseListener {
+
+  private static final double NANOS_PER_MILLI = 1000000d;
+
+  private final String name;
+
+  private Target target;
+
+  private long parseCount;
+
+  private long failedParseCount;
+
+  private long lastParseNanos;
+
+  private long totalParseNanos;
+
+  private long maxParseNanos;
+
+  private long bytesProcessed;
+
+  private long errorCount;
+
+  private long warningCount;
+
+  /**
+   * Creates a new monitor with given name. The name must be unique among registered monitors.
+   *
+   * @param name The configuration name (required).
+   */
+  public ConfigMonitor(String name) {
+    if (name == null) {
+      throw new NullPointerException("Given monitor name is a null reference");
+    }
+    this.name = name;
+  }
+
+  /**
+   * Attaches the monitor to given model and configuration file, which are used by the management operations. The
+   * {@link #reparse()} operation then only validates the file: the parsed configuration is discarded.
+   *
+   * @param model The monitored model (required).
+   * @param file The configuration file parsed by the model (required).
+   * @return This monitor.
+   */
+  public ConfigMonitor attach(ConfigModel<?> model, File file) {
+    return attach(model, file, null);
+  }
+
+  /**
+   * Attaches the monitor to given model and configuration file, which are used by the management operations. The
+   * configuration parsed by the {@link #reparse()} operation is handed over to the given consumer.
+   *
+   * @param <T> The type of the configuration bean.
+   * @param model The monitored model (required).
+   * @param file The configuration file parsed by the model (required).
+   * @param consumer The receiver of the reloaded configuration (may be null to only validate the file).
+   * @return This monitor.
+   */
+  public <T> ConfigMonitor attach(final ConfigModel<T> model, File file, final ReloadConsumer<? super T> consumer) {
+    if (model == null) {
+      throw new NullPointerException("Given configuration model is a null reference");
+    }
+
+    setTarget(new Target(file, consumer != null) {
+
+      @Override
+      void parse(InputStream input) throws ConfigException {
+        T config = model.parse(input, withMonitor(model.getListener()));
+        if (consumer != null) {
+          consumer.accept(config);
+        }
+      }
+
+      @Override
+      Object getModel() {
+        return model;
+      }
+
+      @Override
+      ValueConverter getConverter() {
+        return model.getValueConverter();
+      }
+    });
+    return this;
+  }
+
+  /**
+   * Attaches the monitor to given model and configuration file, which are used by the management operations. The
+   * {@link #reparse()} operation then only validates the file: the parsed configuration is discarded.
+   *
+   * @param model The monitored model (required).
+   * @param file The configuration file parsed by the model (required).
+   * @return This monitor.
+   */
+  public ConfigMonitor attach(MapConfigModel<?> model, File file) {
+    return attach(model, file, null);
+  }
+
+  /**
+   * Attaches the monitor to given model and configuration file, which are used by the management operations. The
+   * configuration parsed by the {@link #reparse()} operation is handed over to the given consumer.
+   *
+   * @param <T> The type of the configuration bean.
+   * @param model The monitored model (required).
+   * @param file The configuration file parsed by the model (required).
+   * @param consumer The receiver of the reloaded configuration (may be null to only validate the file).
+   * @return This monitor.
+   */
+  public <T> ConfigMonitor attach(final MapConfigModel<T> model, File file,
+      final ReloadConsumer<? super Map<String, T>> consumer) {
+    if (model == null) {
+      throw new NullPointerException("Given configuration model is a null reference");
+    }
+
+    setTarget(new Target(file, consumer != null) {
+
+      @Override
+      void parse(InputStream input) throws ConfigException {
+        Map<String, T> config = model.parse(input, withMonitor(model.getListener()));
+        if (consumer != null) {
+          consumer.accept(config);
+        }
+      }
+
+      @Override
+      Object getModel() {
+        return model;
+      }
+
+      @Override
+      ValueConverter getConverter() {
+        return model.getValueConverter();
+      }
+    });
+    return this;
+  }
+
+  /**
+   * Provides the name of this monitor in the platform MBean server.
+   *
+   * @return The object name.
+   * @throws JMException When the monitor name is not suitable for an object name.
+   */
+  public ObjectName getObjectName() throws JMException {
+    return new ObjectName("ws.rocket.config:type=ConfigMonitor,name=" + ObjectName.quote(this.name));
+  }
+
+  /**
+   * Registers this monitor to the platform MBean server.
+   *
+   * @return This monitor.
+   * @throws JMException When the registration fails (e.g. a monitor with the same name is already registered).
+   */
+  public ConfigMonitor register() throws JMException {
+    ManagementFactory.getPlatformMBeanServer().registerMBean(this, getObjectName());
+    return this;
+  }
+
+  /**
+   * Unregisters this monitor from the platform MBean server.
+   *
+   * @throws JMException When the monitor is not registered.
+   */
+  public void unregister() throws JMException {
+    ManagementFactory.getPlatformMBeanServer().unregisterMBean(getObjectName());
+  }
+
+  @Override
+  public String getName() {
+    return this.name;
+  }
+
+  @Override
+  public synchronized String getConfigFile() {
+    return this.target != null ? this.target.file.getPath() : null;
+  }
+
+  @Override
+  public synchronized long getParseCount() {
+    return this.parseCount;
+  }
+
+  @Override
+  public synchronized long getFailedParseCount() {
+    return this.failedParseCount;
+  }
+
+  @Override
+  public synchronized double getLastParseMillis() {
+    return this.lastParseNanos / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public synchronized double getAverageParseMillis() {
+    return this.parseCount == 0 ? 0 : this.totalParseNanos / NANOS_PER_MILLI / this.parseCount;
+  }
+
+  @Override
+  public synchronized double getMaxParseMillis() {
+    return this.maxParseNanos / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public synchronized long getBytesProcessed() {
+    return this.bytesProcessed;
+  }
+
+  @Override
+  public synchronized long getErrorCount() {
+    return this.errorCount;
+  }
+
+  @Override
+  public synchronized long getWarningCount() {
+    return this.warningCount;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Only a {@link MemoizingConverter} set directly as the value converter of the model is detected. When it is wrapped
+   * in another converter, the decorator cannot be looked into, and -1 is returned.
+   */
+  @Override
+  public double getCacheHitRate() {
+    Target current = getTarget();
+    ValueConverter converter = current != null ? current.getConverter() : null;
+    return converter instanceof MemoizingConverter ? ((MemoizingConverter) converter).getHitRate() : -1;
+  }
+
+  @Override
+  public String reparse() {
+    Target current = getTarget();
+    if (current == null) {
+      return "The monitor is not attached to a model";
+    }
+
+    try {
+      InputStream input = new BufferedInputStream(new FileInputStream(current.file));
+      try {
+        current.parse(input);
+      } finally {
+        input.close();
+      }
+      if (current.reloading) {
+        return "Reloaded " + current.file + " in " + getLastParseMillis() + " ms";
+      }
+      return "Validated " + current.file + " in " + getLastParseMillis() + " ms";
+    } catch (ConfigException e) {
+      return "Parsing " + current.file + " failed: " + e.getMessages();
+    } catch (IOException e) {
+      return "Could not read " + current.file + ": " + e.getMessage();
+    }
+  }
+
+  @Override
+  public String describe() {
+    Target current = getTarget();
+    return current != null ? current.getModel().toString() : "The monitor is not attached to a model";
+  }
+
+  @Override
+  public void parseStarted() {
+    // Only completed parses are measured.
+  }
+
+  @Override
+  public void sectionReadStarted(String section) {
+    // Only whole parses are measured.
+  }
+
+  @Override
+  public void sectionWriteStarted(String section) {
+    // Only whole parses are measured.
+  }
+
+  @Override
+  public synchronized void sectionRead(String section, int lines, long bytes, long nanos) {
+    this.bytesProcessed += bytes;
+  }
+
+  @Override
+  public void sectionWritten(String section, long nanos) {
+    // Only whole parses are measured.
+  }
+
+  @Override
+  public void valueConverted(Class<?> targetType, boolean success) {
+    // Only whole parses are measured.
+  }
+
+  @Override
+  public void propertySet(String property) {
+    // Only whole parses are measured.
+  }
+
+  @Override
+  public synchronized void parseCompleted(long nanos, long allocatedBytes, Messages messages) {
+    this.parseCount++;
+    this.lastParseNanos = nanos;
+    this.totalParseNanos += nanos;
+    this.maxParseNanos = Math.max(this.maxParseNanos, nanos);
+    this.errorCount += messages.getErrorCount();
+    this.warningCount += messages.getWarningCount();
+
+    if (messages.hasErrors()) {
+      this.failedParseCount++;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ConfigMonitor[" + this.name + "]";
+  }
+
+  private ParseListener withMonitor(ParseListener modelListener) {
+    if (modelListener == null) {
+      return this;
+    } else if (modelListener == this || modelListener instanceof CompositeParseListener
+        && ((CompositeParseListener) modelListener).contains(this)) {
+      return modelListener;
+    }
+    return new CompositeParseListener(modelListener, this);
+  }
+
+  private synchronized Target getTarget() {
+    return this.target;
+  }
+
+  private synchronized void setTarget(Target newTarget) {
+    this.target = newTarget;
+  }
+
+  /**
+   * The monitored model together with its configuration file.
+   */
+  private abstract static class Target {
+
+    private final File file;
+
+    private final boolean reloading;
+
+    Target(File file, boolean reloading) {
+      if (file == null) {
+        throw new NullPointerException("Given configuration file is a null reference");
+      }
+      this.file = file;
+      this.reloading = reloading;
+    }
+
+    abstract void parse(InputStream input) throws ConfigException;
+
+    abstract Object getModel();
+
+    abstract ValueConverter getConverter();
+  }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config;
+
+/**
+ * The management interface of {@link ConfigMonitor}, exposing the configuration loading statistics of a configuration
+ * model through JMX.
+ *
+ * @author Martti Tamm
+ */
+public interface ConfigMonitorMBean {
+
+  /**
+   * Provides the name of the monitored configuration.
+   *
+   * @return The configuration name.
+   */
+  String getName();
+
+  /**
+   * Provides the path of the configuration file that is parsed by {@link #reparse()}.
+   *
+   * @return The configuration file path, or <code>null</code> when not attached to a file.
+   */
+  String getConfigFile();
+
+  /**
+   * Provides the amount of completed parses (including failed parses).
+   *
+   * @return The amount of parses.
+   */
+  long getParseCount();
+
+  /**
+   * Provides the amount of parses that failed due to errors.
+   *
+   * @return The amount of failed parses.
+   */
+  long getFailedParseCount();
+
+  /**
+   * Provides the duration of the last parse.
+   *
+   * @return The duration in milliseconds.
+   */
+  double getLastParseMillis();
+
+  /**
+   * Provides the average duration of parses.
+   *
+   * @return The duration in milliseconds.
+   */
+  double getAverageParseMillis();
+
+  /**
+   * Provides the longest duration of parses.
+   *
+   * @return The duration in milliseconds.
+   */
+  double getMaxParseMillis();
+
+  /**
+   * Provides the total amount of section content bytes parsed.
+   *
+   * @return The amount of bytes.
+   */
+  long getBytesProcessed();
+
+  /**
+   * Provides the total amount of errors reported by parsing.
+   *
+   * @return The amount of errors.
+   */
+  long getErrorCount();
+
+  /**
+   * Provides the total amount of warnings reported by parsing.
+   *
+   * @return The amount of warnings.
+   */
+  long getWarningCount();
+
+  /**
+   * Provides the hit rate of the value conversion cache of the model.
+   *
+   * @return A number from 0 to 1, or -1 when the value converter of the model is not a memoizing value converter
+   *         (e.g. when the memoizing converter is wrapped in another converter).
+   */
+  double getCacheHitRate();
+
+  /**
+   * Parses the configuration file again, so that the parse statistics are updated. When the monitor was attached with
+   * a reload consumer, the parsed configuration is handed over to it. Otherwise, this only validates the file. The
+   * measurements of this parse are reported to the monitor only, not to other listeners of the model.
+   *
+   * @return A summary of the outcome of the parse.
+   */
+  String reparse();
+
+  /**
+   * Describes the monitored model in the format of configuration file.
+   *
+   * @return The model description.
+   */
+  String describe();
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config;
+
+import java.util.Arrays;
+
+/**
+ * A compact record of a parsing problem: its code, location and arguments. The human-readable message is formatted
+ * only when requested, so that recording a problem that nobody reads remains cheap.
+ *
+ * @author Martti Tamm
+ * @see Messages
+ */
+public final class Diagnostic {
+
+  /**
+   * The codes of diagnostics, with message pattern per code. The arguments of a diagnostic are formatted according to
+   * the pattern of its code (using <code>String.format()</code>).
+   */
+  public enum Code {
+
+    /**
+     * A free-text message (the only argument).
+     */
+    TEXT("%s"),
+
+    /**
+     * A value was specified more than once in a section of values. Argument: the value.
+     */
+    DUPLICATE_VALUE("Value '%s is specified more than once, but it was added only once"),
+
+    /**
+     * A property was specified more than once in a section of properties. Argument: the property name.
+     */
+    DUPLICATE_PROPERTY("Property '%s is specified more than once, but only first value was registered"),
+
+    /**
+     * A line in a section of properties is not a key-value pair. Argument: the line.
+     */
+    BAD_PROPERTY_LINE("Bad property line format: '%s' (should be: key = value)"),
+
+    /**
+     * A value could not be converted for a setter method (while trying all setters). Arguments: the value, the target
+     * type, and the failure reason.
+     */
+    CONVERSION_FAILED("Tried to convert value '%s' to %s but failed: %s"),
+
+    /**
+     * A constructor could not be called (while trying all constructors). Arguments: the constructor, and the failure
+     * reason.
+     */
+    CONSTRUCTOR_FAILED("Tried to create an instance of class by calling %s but failed to convert a value to target "
+        + "type: %s"),
+
+    /**
+     * A value to be parsed as an integer is empty or has only a sign. Argument: the value.
+     */
+    NUMBER_EXPECTED("Expected a number but got '%s'"),
+
+    /**
+     * A value to be parsed as an integer contains a character that is not a digit. Arguments: the character, and the
+     * value.
+     */
+    NUMBER_CHARACTER("Unexpected character '%s' in number '%s'"),
+
+    /**
+     * An integer value does not fit the target type. Arguments: the value, the minimum, and the maximum allowed value.
+     */
+    NUMBER_RANGE("Number '%s' is out of range [%s, %s]");
+
+    private final String pattern;
+
+    Code(String pattern) {
+      this.pattern = pattern;
+    }
+
+    /**
+     * Formats a message from the given arguments according to the pattern of this code.
+     *
+     * @param args The message arguments.
+     * @return The formatted message.
+     */
+    public String format(Object... args) {
+      if (this == TEXT && args.length == 1) {
+        return String.valueOf(args[0]);
+      }
+      return String.format(this.pattern, args);
+    }
+  }
+
+  /**
+   * Creates a new diagnostic for a free-text message without location.
+   *
+   * @param msg The message.
+   * @return The diagnostic.
+   */
+  public static Diagnostic text(String msg) {
+    return new Diagnostic(Code.TEXT, null, -1, 0, msg);
+  }
+
+  private final Code code;
+
+  private final String section;
+
+  private final int line;
+
+  private final int column;
+
+  private final Object[] args;
+
+  /**
+   * Creates a new diagnostic.
+   *
+   * @param code The diagnostic code (required).
+   * @param section The name of the section where the problem was detected, or null.
+   * @param line The line number where the problem was detected; negative when the location is unknown.
+   * @param column The column (starting from 1) of the problem; 0 when unknown.
+   * @param args The arguments for the message pattern of the code.
+   */
+  public Diagnostic(Code code, String section, int line, int column, Object... args) {
+    if (code == null) {
+      throw new NullPointerException("Given diagnostic code is a null reference");
+    }
+    this.code = code;
+    this.section = section;
+    this.line = line;
+    this.column = column;
+    this.args = args;
+  }
+
+  /**
+   * Provides the diagnostic code.
+   *
+   * @return The diagnostic code.
+   */
+  public Code getCode() {
+    return this.code;
+  }
+
+  /**
+   * Provides the name of the section where the problem was detected.
+   *
+   * @return The section name, or null when not known.
+   */
+  public String getSection() {
+    return this.section;
+  }
+
+  /**
+   * Provides the line number where the problem was detected.
+   *
+   * @return The line number, or a negative number when the location is unknown.
+   */
+  public int getLine() {
+    return this.line;
+  }
+
+  /**
+   * Provides the column where the problem was detected.
+   *
+   * @return The column (starting from 1), or 0 when not known.
+   */
+  public int getColumn() {
+    return this.column;
+  }
+
+  /**
+   * Provides the message arguments.
+   *
+   * @return A copy of the message arguments.
+   */
+  public Object[] getArguments() {
+    return Arrays.copyOf(this.args, this.args.length);
+  }
+
+  /**
+   * Formats the message of this diagnostic, without location.
+   *
+   * @return The formatted message.
+   */
+  public String getMessage() {
+    return this.code.format(this.args);
+  }
+
+  /**
+   * Formats the message of this diagnostic, preceded by the location (when known) in the form
+   * <code>[section:line:column]: </code>.
+   *
+   * @return The formatted message.
+   */
+  @Override
+  public String toString() {
+    String msg = getMessage();
+    if (this.line < 0) {
+      return msg;
+    }
+
+    StringBuilder sb = new StringBuilder(msg.length() + 40);
+    sb.append('[');
+    if (this.section != null) {
+      sb.append(this.section);
+    }
+    sb.append(':').append(this.line);
+    if (this.column > 0) {
+      sb.append(':').append(this.column);
+    }
+    sb.append("]: ").append(msg);
+    return sb.toString();
+  }
+
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A parse listener that emits JDK Flight Recorder events, so that the time spent on loading configuration shows up in
+ * recordings together with garbage collection and I/O events. Following events (in category "Rocket Config") are
+ * emitted:
+ * <ul>
+ * <li><code>ws.rocket.config.ConfigParse</code> - parsing of a configuration stream (time, allocated bytes, and the
+ * amount of errors and warnings);
+ * <li><code>ws.rocket.config.ConfigSectionParse</code> - reading of a section (lines, bytes, and time);
+ * <li><code>ws.rocket.config.BeanConstruction</code> - writing section data to a configuration bean (time);
+ * <li><code>ws.rocket.config.ValueConversion</code> - a failed value conversion (target type).
+ * </ul>
+ * <p>
+ * The Flight Recorder API is available since Java 9 and is accessed reflectively, since this library targets older
+ * Java versions, too. When it is not available, this listener does nothing (see {@link #isSupported()}). An event is
+ * created only when it is enabled in a recording, therefore this listener costs little when no recording is running.
+ * <p>
+ * The parse, section, and construction events are begun when the listener is notified about the start of the phase,
+ * and committed when the measurements of the phase are reported, so the events span the phase in recordings. Until
+ * then, an event is kept per thread (the start and the end of a phase are reported by the same thread).
+ *
+ * @author Martti Tamm
+ */
+public final class FlightRecorderListener implements ParseListener {
+
+  private static final FlightRecorderListener INSTANCE = new FlightRecorderListener();
+
+  /**
+   * Provides the shared instance of this listener.
+   *
+   * @return The Flight Recorder listener.
+   */
+  public static FlightRecorderListener getInstance() {
+    return INSTANCE;
+  }
+
+  private final EventKind parse;
+
+  private final EventKind section;
+
+  private final EventKind construction;
+
+  private final EventKind conversion;
+
+  private FlightRecorderListener() {
+    EventKind parseEvent = null;
+    EventKind sectionEvent = null;
+    EventKind constructionEvent = null;
+    EventKind conversionEvent = null;
+
+    try {
+      JfrApi api = new JfrApi();
+      parseEvent = new EventKind(api, "ConfigParse", "Config Parse",
+          api.field(long.class, "parseTime", "Parse Time", "Timespan", "NANOSECONDS"),
+          api.field(long.class, "allocated", "Allocated", "DataAmount", "BYTES"),
+          api.field(int.class, "errors", "Errors", null, null),
+          api.field(int.class, "warnings", "Warnings", null, null));
+      sectionEvent = new EventKind(api, "ConfigSectionParse", "Config Section Parse",
+          api.field(String.class, "section", "Section", null, null),
+          api.field(int.class, "lines", "Lines", null, null),
+          api.field(long.class, "bytes", "Bytes", "DataAmount", "BYTES"),
+          api.field(long.class, "readTime", "Read Time", "Timespan", "NANOSECONDS"));
+      constructionEvent = new EventKind(api, "BeanConstruction", "Bean Construction",
+          api.field(String.class, "section", "Section", null, null),
+          api.field(long.class, "writeTime", "Write Time", "Timespan", "NANOSECONDS"));
+      conversionEvent = new EventKind(api, "ValueConversion", "Value Conversion Failure",
+          api.field(String.class, "targetType", "Target Type", null, null));
+    } catch (Exception e) {
+      // Flight Recorder is not available.
+      parseEvent = null;
+    }
+
+    this.parse = parseEvent;
+    this.section = parseEvent != null ? sectionEvent : null;
+    this.construction = parseEvent != null ? constructionEvent : null;
+    this.conversion = parseEvent != null ? conversionEvent : null;
+  }
+
+  /**
+   * Informs whether the Java runtime supports Flight Recorder events. When not, this listener does nothing.
+   *
+   * @return A Boolean that is true when events can be emitted.
+   */
+  public boolean isSupported() {
+    return this.parse != null;
+  }
+
+  @Override
+  public void parseStarted() {
+    if (this.parse != null) {
+      this.parse.begin();
+    }
+  }
+
+  @Override
+  public void sectionReadStarted(String sectionName) {
+    if (this.section != null) {
+      this.section.begin();
+    }
+  }
+
+  @Override
+  public void sectionWriteStarted(String sectionName) {
+    if (this.construction != null) {
+      this.construction.begin();
+    }
+  }
+
+  @Override
+  public void sectionRead(String sectionName, int lines, long bytes, long nanos) {
+    if (this.section != null && this.section.isEnabled()) {
+      this.section.commit(sectionName, lines, bytes, nanos);
+    }
+  }
+
+  @Override
+  public void sectionWritten(String sectionName, long nanos) {
+    if (this.construction != null && this.construction.isEnabled()) {
+      this.construction.commit(sectionName, nanos);
+    }
+  }
+
+  @Override
+  public void valueConverted(Class<?> targetType, boolean success) {
+    if (!success && this.conversion != null && this.conversion.isEnabled()) {
+      this.conversion.commit(targetType.getName());
+    }
+  }
+
+  @Override
+  public void propertySet(String property) {
+    // Too frequent and cheap for an event.
+  }
+
+  @Override
+  public void parseCompleted(long nanos, long allocatedBytes, Messages messages) {
+    if (this.parse != null && this.parse.isEnabled()) {
+      this.parse.commit(nanos, allocatedBytes, messages.getErrorCount(), messages.getWarningCount());
+    }
+  }
+
+  /**
+   * The reflectively accessed Flight Recorder API.
+   */
+  private static final class JfrApi {
+
+    private final Class<?> annotationElement = Class.forName("jdk.jfr.AnnotationElement");
+
+    private final Constructor<?> newAnnotation = this.annotationElement.getConstructor(Class.class, Object.class);
+
+    private final Constructor<?> newValue = Class.forName("jdk.jfr.ValueDescriptor")
+        .getConstructor(Class.class, String.class, List.class);
+
+    private final Method createFactory = Class.forName("jdk.jfr.EventFactory")
+        .getMethod("create", List.class, List.class);
+
+    private final Method newEvent = Class.forName("jdk.jfr.EventFactory").getMethod("newEvent");
+
+    private final Method getEventType = Class.forName("jdk.jfr.EventFactory").getMethod("getEventType");
+
+    private final Method isEnabled = Class.forName("jdk.jfr.EventType").getMethod("isEnabled");
+
+    private final Method set = Class.forName("jdk.jfr.Event").getMethod("set", int.class, Object.class);
+
+    private final Method begin = Class.forName("jdk.jfr.Event").getMethod("begin");
+
+    private final Method end = Class.forName("jdk.jfr.Event").getMethod("end");
+
+    private final Method commit = Class.forName("jdk.jfr.Event").getMethod("commit");
+
+    JfrApi() throws Exception {
+      // Just initializes the fields.
+    }
+
+    Object annotation(String type, Object value) throws Exception {
+      return this.newAnnotation.newInstance(Class.forName("jdk.jfr." + type), value);
+    }
+
+    Object field(Class<?> type, String name, String label, String unitType, String unit)
+        throws Exception {
+      List<Object> annotations = new ArrayList<Object>();
+      annotations.add(annotation("Label", label));
+      if (unitType != null) {
+        annotations.add(annotation(unitType, unit));
+      }
+      return this.newValue.newInstance(type, name, annotations);
+    }
+  }
+
+  /**
+   * A dynamically defined Flight Recorder event type. The event of a phase in progress is kept per thread; a plain
+   * <code>ThreadLocal</code> is used so that no class of this library is referenced from the threads.
+   */
+  private static final class EventKind {
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final JfrApi api;
+
+    private final Object factory;
+
+    private final Object type;
+
+    private final ThreadLocal<Object> started = new ThreadLocal<Object>();
+
+    EventKind(JfrApi api, String name, String label, Object... fields) throws Exception {
+      List<Object> annotations = Arrays.asList(api.annotation("Name", "ws.rocket.config." + name),
+          api.annotation("Label", label), api.annotation("Category", new String[] { "Rocket Config" }));
+
+      this.api = api;
+      this.factory = api.createFactory.invoke(null, annotations, Arrays.asList(fields));
+      this.type = api.getEventType.invoke(this.factory);
+    }
+
+    /**
+     * Informs whether a recording has enabled this event. This does not allocate, so the listener hooks call it before
+     * composing the event values.
+     *
+     * @return A Boolean that is true when the event is enabled.
+     */
+    boolean isEnabled() {
+      try {
+        return Boolean.TRUE.equals(this.api.isEnabled.invoke(this.type, NO_ARGS));
+      } catch (Exception e) {
+        return false;
+      }
+    }
+
+    /**
+     * Begins an event for the phase starting in current thread, when the event is enabled. Otherwise, forgets an event
+     * possibly left over from a phase that did not complete.
+     */
+    void begin() {
+      if (!isEnabled()) {
+        this.started.remove();
+        return;
+      }
+
+      try {
+        Object event = this.api.newEvent.invoke(this.factory, NO_ARGS);
+        this.api.begin.invoke(event, NO_ARGS);
+        this.started.set(event);
+      } catch (Exception e) {
+        this.started.remove();
+      }
+    }
+
+    /**
+     * Ends and commits the event of the phase completed in current thread with given values. When the phase was not
+     * begun (e.g. the recording started during the phase), the event is created now and has no duration.
+     *
+     * @param values The values of the event fields, in the order of the field declarations.
+     */
+    void commit(Object... values) {
+      Object event = this.started.get();
+      this.started.remove();
+
+      try {
+        if (event == null) {
+          event = this.api.newEvent.invoke(this.factory, NO_ARGS);
+        }
+        for (int i = 0; i < values.length; i++) {
+          this.api.set.invoke(event, i, values[i]);
+        }
+        this.api.end.invoke(event, NO_ARGS);
+        this.api.commit.invoke(event, NO_ARGS);
+      } catch (Exception e) {
+        // Ignored: an event is not worth failing the parsing.
+        return;
+      }
+    }
+  }
+
+}
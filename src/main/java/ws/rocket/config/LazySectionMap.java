@@ -0,0 +1,225 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import ws.rocket.config.reader.StreamReader;
+
+/**
+ * An unmodifiable map of configuration beans by section names, where a bean is parsed and constructed only when it is
+ * requested for the first time. The map is backed by an index of section positions in the configuration file, which is
+ * created by scanning the file once. The parsed beans are cached.
+ * <p>
+ * As <code>Map</code> methods cannot throw checked exceptions, a problem with parsing a section is raised as an
+ * <code>IllegalStateException</code> with the <code>ConfigException</code> (or <code>IOException</code>) as its cause.
+ *
+ * @param <T> The type of the configuration bean.
+ *
+ * @author Martti Tamm
+ * @see MapConfigModel#parseLazy(File)
+ */
+final class LazySectionMap<T> extends AbstractMap<String, T> {
+
+  /**
+   * Scans the given configuration file for sections and creates a lazy map backed by the positions of the sections.
+   *
+   * @param <T> The type of the configuration bean.
+   * @param file The configuration file to scan.
+   * @param model The model to use for parsing a section.
+   * @return The created map.
+   * @throws ConfigException When the file cannot be read, or has bad or duplicate section names.
+   */
+  static <T> LazySectionMap<T> scan(File file, MapConfigModel<T> model) throws ConfigException {
+    Map<String, long[]> index = new LinkedHashMap<String, long[]>();
+    Messages msgs = new Messages();
+    InputStream input = null;
+
+    try {
+      input = new BufferedInputStream(new FileInputStream(file));
+      StreamReader reader = new StreamReader(input);
+      String name = null;
+      long sectionStart = 0;
+      int sectionLine = 0;
+      String line;
+
+      // Only the section lines are read as text, other lines are skipped without interpreting them.
+      while ((line = reader.skipToSectionLine()) != null) {
+        int endPos = line.indexOf(']');
+
+        if (name != null) {
+          index.put(name, new long[] { sectionStart, reader.getLineStartByte() - sectionStart, sectionLine - 1 });
+        }
+
+        if (endPos < 0) {
+          msgs.addError(new Diagnostic(Diagnostic.Code.TEXT, name, reader.getLineNumber(), 0,
+              "Bad section name format: " + line));
+          name = null;
+        } else {
+          name = line.substring(1, endPos).trim();
+          sectionStart = reader.getLineStartByte();
+          sectionLine = reader.getLineNumber();
+
+          if (index.containsKey(name)) {
+            msgs.addError(new Diagnostic(Diagnostic.Code.TEXT, name, sectionLine, 0, "Section is already defined."));
+            name = null;
+          }
+        }
+      }
+
+      if (name != null) {
+        index.put(name, new long[] { sectionStart, reader.getByteCount() - sectionStart, sectionLine - 1 });
+      }
+
+    } catch (IOException e) {
+      msgs.addError("While scanning configuration file: " + e.getMessage());
+
+    } finally {
+      if (input != null) {
+        BulkParser.close(input, msgs);
+      }
+    }
+
+    if (msgs.hasErrors()) {
+      throw new ConfigException(msgs);
+    }
+
+    return new LazySectionMap<T>(file, index, model);
+  }
+
+  private final File file;
+
+  /**
+   * Section names mapped to the start byte of the section, its length in bytes, and the amount of lines before it.
+   */
+  private final Map<String, long[]> index;
+
+  private final MapConfigModel<T> model;
+
+  private final ConcurrentMap<String, T> beans = new ConcurrentHashMap<String, T>();
+
+  private LazySectionMap(File file, Map<String, long[]> index, MapConfigModel<T> model) {
+    this.file = file;
+    this.index = index;
+    this.model = model;
+  }
+
+  @Override
+  public T get(Object key) {
+    T bean = this.beans.get(key);
+
+    if (bean == null && this.index.containsKey(key)) {
+      bean = parse((String) key);
+
+      if (bean != null) {
+        T other = this.beans.putIfAbsent((String) key, bean);
+        if (other != null) {
+          bean = other;
+        }
+      }
+    }
+
+    return bean;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return this.index.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return this.index.size();
+  }
+
+  @Override
+  public Set<String> keySet() {
+    return Collections.unmodifiableSet(this.index.keySet());
+  }
+
+  @Override
+  public Set<Map.Entry<String, T>> entrySet() {
+    return new AbstractSet<Map.Entry<String, T>>() {
+
+      @Override
+      public Iterator<Map.Entry<String, T>> iterator() {
+        final Iterator<String> keys = LazySectionMap.this.index.keySet().iterator();
+
+        return new Iterator<Map.Entry<String, T>>() {
+
+          @Override
+          public boolean hasNext() {
+            return keys.hasNext();
+          }
+
+          @Override
+          public Map.Entry<String, T> next() {
+            String key = keys.next();
+            return new SimpleImmutableEntry<String, T>(key, get(key));
+          }
+
+          @Override
+          public void remove() {
+            throw new UnsupportedOperationException("The map of configuration beans cannot be modified");
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return LazySectionMap.this.index.size();
+      }
+    };
+  }
+
+  private T parse(String key) {
+    long[] position = this.index.get(key);
+    byte[] data = new byte[(int) position[1]];
+
+    try {
+      RandomAccessFile input = new RandomAccessFile(this.file, "r");
+      try {
+        input.seek(position[0]);
+        input.readFully(data);
+      } finally {
+        input.close();
+      }
+
+      return this.model.parse(new ByteArrayInputStream(data), (int) position[2]).get(key);
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read section [" + key + "] from " + this.file, e);
+    } catch (ConfigException e) {
+      throw new IllegalStateException("Could not parse section [" + key + "] from " + this.file + ":\n"
+          + e.getMessages(), e);
+    }
+  }
+
+}
@@ -16,13 +16,29 @@
 
 package ws.rocket.config;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import ws.rocket.config.bean.BeanAccess;
 import ws.rocket.config.bean.BeanContext;
+import ws.rocket.config.bean.BeanWriter;
 import ws.rocket.config.reader.ReaderContext;
 import ws.rocket.config.reader.StreamWriter;
 import ws.rocket.config.section.Section;
@@ -36,6 +52,10 @@ import ws.rocket.config.section.write.BeanConstructPropertyWriter;
  * to have same section format. This model, when parsed, returns an unordered map, where read section names are stored
  * as map keys, and section data is stored as a map value (per map key) in an instance of the target bean type.
  *
+ * <p>
+ * The model keeps no parsing state, therefore it may be shared and used for parsing by several threads at the same
+ * time (as long as the value converter is thread-safe).
+ *
  * @param <T> The target type that will hold the read configuration of each section.
  *
  * @author Martti Tamm
@@ -69,28 +89,164 @@ public final class MapConfigModel<T> {
    */
   public static <T> MapConfigModel<T> expect(Class<T> confInstanceType, ValueConverter converter,
           String... propNames) {
+    return expect(confInstanceType, converter, BeanAccess.SETTERS, propNames);
+  }
+
+  /**
+   * The factory method for constructing a new map-based model for given configuration bean type. The returned
+   * configuration model allows unlimited amount of sections where section name is used as map key, and the section data
+   * is used to create a new instance of configuration bean (per section).
+   * <p>
+   * With <code>BeanAccess.FIELDS</code>, the configuration bean does not need setter methods for its properties, as the
+   * values will be written directly to the bean fields (when the bean is not created by a constructor with parameters).
+   *
+   * @param <T>              The type of the configuration bean.
+   * @param confInstanceType The type of the configuration bean.
+   * @param converter        A custom value converter to use for <code>String</code> to runtime type value conversions.
+   * @param access           The way configuration bean properties are written.
+   * @param propNames        Optional array of allowed property names. When empty, all properties are attempted.
+   * @return The created configuration model.
+   */
+  public static <T> MapConfigModel<T> expect(Class<T> confInstanceType, ValueConverter converter, BeanAccess access,
+          String... propNames) {
     if (confInstanceType == null) {
       throw new NullPointerException("Given configuration bean type is a null reference");
     } else if (converter == null) {
       throw new NullPointerException("Given value converter is a null reference");
+    } else if (access == null) {
+      throw new NullPointerException("Given bean access is a null reference");
     }
 
     validatePropName(propNames);
 
-    BeanContext<T> beanFactory = new BeanContext<T>(confInstanceType, converter);
+    BeanContext<T> beanFactory = new BeanContext<T>(confInstanceType, converter, access);
     Section section = new Section("*", new ValueMapSection(), new BeanConstructPropertyWriter(propNames));
     section.validate(beanFactory.getValidator());
 
-    return new MapConfigModel<T>(beanFactory, section);
+    return new MapConfigModel<T>(beanFactory, section, false, 0, true, 0, null);
   }
 
   private final BeanContext<T> beanFactory;
 
   private final Section section;
 
-  private MapConfigModel(BeanContext<T> beanFactory, Section section) {
+  private final boolean canonical;
+
+  private final int errorLimit;
+
+  private final boolean warningsEnabled;
+
+  private final int warningLimit;
+
+  private final ParseListener listener;
+
+  private MapConfigModel(BeanContext<T> beanFactory, Section section, boolean canonical, int errorLimit,
+      boolean warningsEnabled, int warningLimit, ParseListener listener) {
     this.beanFactory = beanFactory;
     this.section = section;
+    this.canonical = canonical;
+    this.errorLimit = errorLimit;
+    this.warningsEnabled = warningsEnabled;
+    this.warningLimit = warningLimit;
+    this.listener = listener;
+  }
+
+  /**
+   * Provides a model, which, when parsing, constructs a configuration bean only once per distinct section content.
+   * Sections with identical content (the same key-value pairs) will share the same bean instance. This is intended for
+   * immutable configuration beans, as a change in a shared bean would affect all the sections it was created for.
+   * <p>
+   * The beans are shared within the result of a single parse only.
+   *
+   * @return A new model, which is otherwise the same as this model.
+   */
+  public MapConfigModel<T> shareIdenticalBeans() {
+    return new MapConfigModel<T>(this.beanFactory, this.section, true, this.errorLimit, this.warningsEnabled,
+        this.warningLimit, this.listener);
+  }
+
+  /**
+   * Provides a model, which stops parsing at the first error. This is the same as <code>errorLimit(1)</code>.
+   *
+   * @return A new model, which is otherwise the same as this model.
+   * @see #errorLimit(int)
+   */
+  public MapConfigModel<T> failFast() {
+    return errorLimit(1);
+  }
+
+  /**
+   * Provides a model, which stops parsing once the given amount of errors has been logged. By default, there is no
+   * limit, and the configuration stream is always parsed till the end.
+   *
+   * @param maxErrors The maximum amount of errors. Zero means no limit.
+   * @return A new model, which is otherwise the same as this model.
+   */
+  public MapConfigModel<T> errorLimit(int maxErrors) {
+    if (maxErrors < 0) {
+      throw new IllegalArgumentException("Error limit must not be negative");
+    }
+    return new MapConfigModel<T>(this.beanFactory, this.section, this.canonical, maxErrors, this.warningsEnabled,
+        this.warningLimit, this.listener);
+  }
+
+  /**
+   * Provides a model, which ignores warnings while parsing, so that warning messages are not even composed.
+   *
+   * @return A new model, which is otherwise the same as this model.
+   */
+  public MapConfigModel<T> ignoreWarnings() {
+    return new MapConfigModel<T>(this.beanFactory, this.section, this.canonical, this.errorLimit, false,
+        this.warningLimit, this.listener);
+  }
+
+  /**
+   * Provides a model, which limits the amount of warnings stored while parsing. The warnings over the limit are only
+   * counted per diagnostic code. By default, there is no limit.
+   *
+   * @param maxWarnings The maximum amount of warnings to store. Zero means no limit.
+   * @return A new model, which is otherwise the same as this model.
+   */
+  public MapConfigModel<T> warningLimit(int maxWarnings) {
+    if (maxWarnings < 0) {
+      throw new IllegalArgumentException("Warning limit must not be negative");
+    }
+    return new MapConfigModel<T>(this.beanFactory, this.section, this.canonical, this.errorLimit,
+        this.warningsEnabled, maxWarnings, this.listener);
+  }
+
+  /**
+   * Provides a model, which reports the measurements of each parse to the given listener. By default, no measurements
+   * are taken. Several listeners can be combined with {@link CompositeParseListener}.
+   *
+   * @param parseListener The receiver of parse measurements (may be null).
+   * @return A new model, which is otherwise the same as this model.
+   * @see ConfigMonitor
+   * @see CompositeParseListener
+   */
+  public MapConfigModel<T> listener(ParseListener parseListener) {
+    return new MapConfigModel<T>(this.beanFactory, this.section, this.canonical, this.errorLimit,
+        this.warningsEnabled, this.warningLimit, parseListener);
+  }
+
+  /**
+   * Provides the listener that receives the measurements of parsing with this model.
+   *
+   * @return The parse listener, or <code>null</code> when not set.
+   * @see #listener(ParseListener)
+   */
+  public ParseListener getListener() {
+    return this.listener;
+  }
+
+  /**
+   * Informs whether sections with identical content share the same configuration bean instance.
+   *
+   * @return A Boolean that is true when identical beans are shared.
+   * @see #shareIdenticalBeans()
+   */
+  public boolean isSharingIdenticalBeans() {
+    return this.canonical;
   }
 
   /**
@@ -124,18 +280,330 @@ public final class MapConfigModel<T> {
    * @throws ConfigException Contains error and possibly also warning messages from parsing the stream.
    */
   public Map<String, T> parse(InputStream input) throws ConfigException {
-    ReaderContext<T> ctx = new ReaderContext<T>(this.beanFactory, false, input);
+    return parseWith(input, this.listener, 0);
+  }
+
+  /**
+   * Parses the input stream like {@link #parse(InputStream)}, and reports the measurements of parsing (time spent per
+   * section, value conversions, written properties, and allocated bytes) to the given listener. The measurements are
+   * reported also when parsing fails. The given listener is used instead of the listener of this model.
+   *
+   * @param input Configuration stream. When null then ConfigException will be raised.
+   * @param parseListener The receiver of parse measurements (required).
+   * @return A new instance of configuration object with data set as defined in the stream.
+   * @throws ConfigException Contains error and possibly also warning messages from parsing the stream.
+   * @see ParseStats
+   */
+  public Map<String, T> parse(InputStream input, ParseListener parseListener) throws ConfigException {
+    if (parseListener == null) {
+      throw new NullPointerException("Given parse listener is a null reference");
+    }
+    return parseWith(input, parseListener, 0);
+  }
+
+  /**
+   * Scans the configuration file for sections, and returns a map where the configuration bean of a section is parsed
+   * and constructed only when it is requested for the first time (and then cached). Only the positions of the sections
+   * in the file are retained until then, therefore the file must not be modified while the returned map is in use.
+   * <p>
+   * The returned map is unmodifiable and may be used by several threads at the same time. Since the <code>Map</code>
+   * methods cannot throw checked exceptions, a problem with parsing a requested section will be raised as an
+   * <code>IllegalStateException</code> with the <code>ConfigException</code> as its cause.
+   *
+   * @param file The configuration file to parse.
+   * @return A map with configuration objects (as values) by section names (as keys).
+   * @throws ConfigException When the file cannot be read, or has bad or duplicate section names.
+   */
+  public Map<String, T> parseLazy(File file) throws ConfigException {
+    if (file == null) {
+      throw new NullPointerException("Given configuration file is a null reference");
+    }
+    return LazySectionMap.scan(file, this);
+  }
+
+  /**
+   * Parses the input stream like {@link #parse(InputStream)}, but instead of collecting the configuration beans into a
+   * map, hands each bean over to the given consumer as soon as its section has been parsed. Only the section names are
+   * retained (for detecting duplicate sections) while parsing.
+   * <p>
+   * A bean is handed over only when there were no errors while constructing it. Once the stream has been parsed, the
+   * errors (of any section) are reported through one <code>ConfigException</code>. Therefore, the consumer may have
+   * received some beans before the exception is raised.
+   *
+   * @param input Configuration stream. When null then ConfigException will be raised.
+   * @param consumer The receiver of configuration beans.
+   * @throws ConfigException Contains error and possibly also warning messages from parsing the stream.
+   */
+  public void parse(InputStream input, SectionConsumer<T> consumer) throws ConfigException {
+    if (consumer == null) {
+      throw new NullPointerException("Given section consumer is a null reference");
+    }
+
+    Messages parseMsgs = newMessages();
+    ParseTimer timer = new ParseTimer(this.listener);
+    try {
+      parse(new ReaderContext<T>(this.beanFactory, false, input, parseMsgs, this.listener), input, consumer);
+    } finally {
+      timer.complete(parseMsgs);
+    }
+  }
+
+  private void parse(ReaderContext<T> ctx, InputStream input, SectionConsumer<T> consumer) throws ConfigException {
+    Set<String> keys = new HashSet<String>();
+    Map<Object, T> beans = new HashMap<Object, T>();
+
+    try {
+      String key = ctx.toNextSection().inSection();
+
+      while (key != null && !ctx.isStopped()) {
+        if (!keys.add(key)) {
+          ctx.error("Section is already defined.").toNextSection();
+        } else {
+          Object data = this.section.read(ctx);
+          Messages msgs = ctx.getMessages().newMessages();
+          T bean = beans.get(data);
+
+          if (bean == null) {
+            bean = construct(key, data, msgs);
+            ctx.getMessages().addAll(msgs);
+
+            if (this.canonical && bean != null && !msgs.hasErrors()) {
+              beans.put(data, bean);
+            }
+          }
+
+          if (bean != null && !msgs.hasErrors()) {
+            consumer.accept(key, bean);
+          }
+        }
+
+        key = ctx.inSection();
+      }
+
+    } catch (IOException e) {
+      ctx.log("While processing configuration stream", e);
+
+    } finally {
+      try {
+        input.close();
+      } catch (IOException e) {
+        ctx.log("While closing configuration stream", e);
+      }
+    }
+
+    ctx.checkErrors();
+  }
+
+  /**
+   * Parses the input stream like {@link #parse(InputStream)}, but constructs the configuration beans in parallel: the
+   * calling thread reads the sections, while the given executor converts the values and constructs the bean of each
+   * read section. This method returns once all the beans have been constructed. The executor is not shut down by this
+   * method.
+   * <p>
+   * The errors and warnings are still reported through one <code>ConfigException</code>, with the bean construction
+   * messages of each section in the order of sections.
+   *
+   * @param input Configuration stream. When null then ConfigException will be raised.
+   * @param executor The executor for constructing the configuration beans.
+   * @return A new concurrent map with configuration objects (as values) by section names (as keys).
+   * @throws ConfigException Contains error and possibly also warning messages from parsing the stream.
+   */
+  public Map<String, T> parse(InputStream input, ExecutorService executor) throws ConfigException {
+    if (executor == null) {
+      throw new NullPointerException("Given executor is a null reference");
+    }
+
+    Messages parseMsgs = newMessages();
+    ParseTimer timer = new ParseTimer(this.listener);
+    try {
+      return parse(new ReaderContext<T>(this.beanFactory, false, input, parseMsgs, this.listener), input, executor);
+    } finally {
+      timer.complete(parseMsgs);
+    }
+  }
+
+  private Map<String, T> parse(ReaderContext<T> ctx, InputStream input, ExecutorService executor)
+      throws ConfigException {
+    Map<String, T> result = new ConcurrentHashMap<String, T>();
+    Set<String> keys = new HashSet<String>();
+    List<Future<Messages>> tasks = new ArrayList<Future<Messages>>();
+    Map<Object, String> firstKeys = new HashMap<Object, String>();
+    Map<String, String> sharedKeys = new HashMap<String, String>();
+
+    try {
+      String key = ctx.toNextSection().inSection();
+
+      while (key != null && !ctx.isStopped()) {
+        if (!keys.add(key)) {
+          ctx.error("Section is already defined.").toNextSection();
+        } else {
+          Object data = this.section.read(ctx);
+          String firstKey = this.canonical ? firstKeys.get(data) : null;
+
+          if (firstKey != null) {
+            sharedKeys.put(key, firstKey);
+          } else {
+            firstKeys.put(data, key);
+            tasks.add(executor.submit(new BeanTask(key, data, result, ctx.getMessages().newMessages())));
+          }
+        }
+
+        key = ctx.inSection();
+      }
+
+    } catch (IOException e) {
+      ctx.log("While processing configuration stream", e);
+
+    } finally {
+      try {
+        input.close();
+      } catch (IOException e) {
+        ctx.log("While closing configuration stream", e);
+      }
+    }
+
+    awaitBeans(tasks, ctx.getMessages());
+
+    for (Map.Entry<String, String> sharedKey : sharedKeys.entrySet()) {
+      T bean = result.get(sharedKey.getValue());
+      if (bean != null) {
+        result.put(sharedKey.getKey(), bean);
+      }
+    }
+
+    ctx.checkErrors();
+    return result;
+  }
+
+  /**
+   * Parses the given configuration files in parallel, as defined in this model. The files are parsed using a new
+   * executor that uses virtual threads (when supported by the Java runtime) or a thread per available processor. The
+   * executor is shut down once all files are parsed.
+   * <p>
+   * Problems with a file do not affect parsing other files: they are reported in the result of that file.
+   *
+   * @param files The configuration files to parse.
+   * @return The parse results in the same order as the given files.
+   * @see #parse(InputStream)
+   */
+  public List<ParseResult<Map<String, T>>> parseAll(Collection<File> files) {
+    return BulkParser.parseAll(files, new FileParserImpl());
+  }
+
+  /**
+   * Parses the given configuration files in parallel, as defined in this model, using the given executor. The executor
+   * is not shut down by this method.
+   * <p>
+   * Problems with a file do not affect parsing other files: they are reported in the result of that file.
+   *
+   * @param files The configuration files to parse.
+   * @param executor The executor to use for parsing the files.
+   * @return The parse results in the same order as the given files.
+   * @see #parse(InputStream)
+   */
+  public List<ParseResult<Map<String, T>>> parseAll(Collection<File> files, ExecutorService executor) {
+    return BulkParser.parseAll(files, executor, new FileParserImpl());
+  }
+
+  private Messages newMessages() {
+    return new Messages(this.errorLimit, this.warningsEnabled, this.warningLimit);
+  }
+
+  ValueConverter getValueConverter() {
+    return this.beanFactory.getValueConverter();
+  }
+
+  Map<String, T> parse(InputStream input, int lineOffset) throws ConfigException {
+    return parseWith(input, this.listener, lineOffset);
+  }
+
+  private Map<String, T> parseWith(InputStream input, ParseListener parseListener, int lineOffset)
+      throws ConfigException {
+    Messages msgs = newMessages();
+    ParseTimer timer = new ParseTimer(parseListener);
+    try {
+      ReaderContext<T> ctx = new ReaderContext<T>(this.beanFactory, false, input, msgs, parseListener, lineOffset);
+      Map<String, T> result = read(ctx, input);
+      ctx.checkErrors();
+      return result;
+    } finally {
+      timer.complete(msgs);
+    }
+  }
+
+  private T construct(String key, Object data, Messages msgs) {
+    BeanWriter<T> writer = this.beanFactory.createWriter(msgs);
+    if (this.listener != null) {
+      this.listener.sectionWriteStarted(key);
+    }
+    long start = this.listener != null ? System.nanoTime() : 0;
+
+    writer.setListener(this.listener);
+    this.section.write(writer, data);
+
+    if (this.listener != null) {
+      this.listener.sectionWritten(key, System.nanoTime() - start);
+    }
+    return writer.getBean();
+  }
+
+  private static void awaitBeans(List<Future<Messages>> tasks, Messages msgs) {
+    boolean interrupted = false;
+
+    for (Future<Messages> task : tasks) {
+      if (interrupted) {
+        task.cancel(true);
+        continue;
+      }
+
+      try {
+        msgs.addAll(task.get());
+      } catch (InterruptedException e) {
+        interrupted = true;
+        task.cancel(true);
+        msgs.addError("Parsing was interrupted");
+      } catch (ExecutionException e) {
+        msgs.addError("Could not construct a configuration bean: " + e.getCause());
+      }
+    }
+
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private Map<String, T> read(ReaderContext<T> ctx, InputStream input) {
     Map<String, T> result = new HashMap<String, T>();
+    Map<Object, T> beans = new HashMap<Object, T>();
 
     try {
       String key = ctx.toNextSection().inSection();
 
-      while (key != null) {
+      while (key != null && !ctx.isStopped()) {
         if (result.get(key) != null) {
           ctx.error("Section is already defined.").toNextSection();
         } else {
-          this.section.parse(ctx);
-          result.put(key, ctx.getBeanWriter().getBean());
+          Object data = this.section.read(ctx);
+          T bean = beans.get(data);
+
+          if (bean == null) {
+            if (ctx.getListener() != null) {
+              ctx.getListener().sectionWriteStarted(key);
+            }
+            long start = ctx.getListener() != null ? System.nanoTime() : 0;
+            this.section.write(ctx.getBeanWriter(), data);
+            bean = ctx.getBeanWriter().getBean();
+
+            if (ctx.getListener() != null) {
+              ctx.getListener().sectionWritten(key, System.nanoTime() - start);
+            }
+
+            if (this.canonical && bean != null && !ctx.getMessages().hasErrors()) {
+              beans.put(data, bean);
+            }
+          }
+
+          result.put(key, bean);
         }
 
         key = ctx.inSection();
@@ -152,7 +620,6 @@ public final class MapConfigModel<T> {
       }
     }
 
-    ctx.checkErrors();
     return result;
   }
 
@@ -201,4 +668,60 @@ public final class MapConfigModel<T> {
     }
   }
 
+  private final class FileParserImpl implements BulkParser.FileParser<Map<String, T>> {
+
+    @Override
+    public ParseResult<Map<String, T>> parse(File file) {
+      InputStream input;
+      try {
+        input = new BufferedInputStream(new FileInputStream(file));
+      } catch (FileNotFoundException e) {
+        return BulkParser.failure(file, "Could not open configuration file: " + e.getMessage());
+      }
+
+      Messages msgs = newMessages();
+      ParseTimer timer = new ParseTimer(MapConfigModel.this.listener);
+      try {
+        ReaderContext<T> ctx = new ReaderContext<T>(MapConfigModel.this.beanFactory, false, input, msgs,
+            MapConfigModel.this.listener);
+        Map<String, T> result = read(ctx, input);
+
+        return new ParseResult<Map<String, T>>(file, msgs.hasErrors() ? null : result, msgs);
+      } catch (ConfigException e) {
+        BulkParser.close(input, e.getMessages());
+        return new ParseResult<Map<String, T>>(file, null, e.getMessages());
+      } finally {
+        timer.complete(msgs);
+      }
+    }
+  }
+
+  private final class BeanTask implements Callable<Messages> {
+
+    private final String key;
+
+    private final Object data;
+
+    private final Map<String, T> result;
+
+    private final Messages msgs;
+
+    private BeanTask(String key, Object data, Map<String, T> result, Messages msgs) {
+      this.key = key;
+      this.data = data;
+      this.result = result;
+      this.msgs = msgs;
+    }
+
+    @Override
+    public Messages call() {
+      T bean = construct(this.key, this.data, this.msgs);
+
+      if (bean != null) {
+        this.result.put(this.key, bean);
+      }
+      return this.msgs;
+    }
+  }
+
 }
@@ -19,58 +19,220 @@ package ws.rocket.config;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A simple container for all the error and warning messages generated during parsing and model validation. Error
  * message should be considered critical, while warning messages can be ignored or not tolerated.
+ * <p>
+ * The messages are stored as {@link Diagnostic}s, and formatted only when requested as strings.
+ * <p>
+ * The container may limit the amount of errors it accepts (the error budget), and it may ignore warnings. Once the
+ * error limit is reached, parsing stops, and further errors are ignored. When warnings are ignored, the callers should
+ * check {@link #isWarningsEnabled()} before composing a warning message, so that no effort would be wasted. The amount
+ * of stored warnings may also be limited: the warnings over the limit are only counted (per diagnostic code).
  *
  * @author Martti Tamm
  */
 public final class Messages {
 
-  private final List<String> errors = new ArrayList<String>();
+  private final List<Diagnostic> errors = new ArrayList<Diagnostic>();
 
-  private final List<String> warnings = new ArrayList<String>();
+  private final List<Diagnostic> warnings = new ArrayList<Diagnostic>();
+
+  private final Map<Diagnostic.Code, Integer> omittedWarnings = new EnumMap<Diagnostic.Code, Integer>(
+      Diagnostic.Code.class);
+
+  private final int errorLimit;
+
+  private final boolean warningsEnabled;
+
+  private final int warningLimit;
+
+  private int omittedWarningCount;
+
+  /**
+   * Creates a new container that accepts all errors and warnings.
+   */
+  public Messages() {
+    this(0, true);
+  }
+
+  /**
+   * Creates a new container with the given error limit and warnings support.
+   *
+   * @param errorLimit The maximum amount of errors to accept (when positive). When the limit is reached, parsing stops.
+   *                   Zero or negative value means no limit.
+   * @param warningsEnabled When false, warnings are ignored.
+   */
+  public Messages(int errorLimit, boolean warningsEnabled) {
+    this(errorLimit, warningsEnabled, 0);
+  }
+
+  /**
+   * Creates a new container with the given error limit, warnings support, and limit of stored warnings.
+   *
+   * @param errorLimit The maximum amount of errors to accept (when positive). When the limit is reached, parsing stops.
+   *                   Zero or negative value means no limit.
+   * @param warningsEnabled When false, warnings are ignored.
+   * @param warningLimit The maximum amount of warnings to store (when positive). Further warnings are only counted.
+   *                     Zero or negative value means no limit.
+   */
+  public Messages(int errorLimit, boolean warningsEnabled, int warningLimit) {
+    this.errorLimit = errorLimit;
+    this.warningsEnabled = warningsEnabled;
+    this.warningLimit = warningLimit;
+  }
 
   /**
-   * Adds a new error message to this container.
+   * Adds a new error message to this container, unless the error limit has been reached.
    *
    * @param msg The message to add.
    */
   public void addError(String msg) {
     if (msg != null && msg.trim().length() > 0) {
-      this.errors.add(msg);
+      addError(Diagnostic.text(msg));
     }
   }
 
   /**
-   * Adds a new warning message to this container.
+   * Adds a new error diagnostic to this container, unless the error limit has been reached.
+   *
+   * @param diagnostic The diagnostic to add (required).
+   */
+  public void addError(Diagnostic diagnostic) {
+    if (diagnostic == null) {
+      throw new NullPointerException("Given diagnostic is a null reference");
+    } else if (!isErrorLimitReached()) {
+      this.errors.add(diagnostic);
+    }
+  }
+
+  /**
+   * Adds a new warning message to this container, unless warnings are ignored.
    *
    * @param msg The message to add.
    */
   public void addWarning(String msg) {
-    if (msg != null && msg.trim().length() > 0) {
-      this.warnings.add(msg);
+    if (this.warningsEnabled && msg != null && msg.trim().length() > 0) {
+      addWarning(Diagnostic.text(msg));
+    }
+  }
+
+  /**
+   * Adds a new warning diagnostic to this container, unless warnings are ignored. When the warning limit has been
+   * reached, the warning is only counted.
+   *
+   * @param diagnostic The diagnostic to add (required).
+   */
+  public void addWarning(Diagnostic diagnostic) {
+    if (diagnostic == null) {
+      throw new NullPointerException("Given diagnostic is a null reference");
+    } else if (this.warningsEnabled) {
+      if (this.warningLimit <= 0 || this.warnings.size() < this.warningLimit) {
+        this.warnings.add(diagnostic);
+      } else {
+        omitWarnings(diagnostic.getCode(), 1);
+      }
+    }
+  }
+
+  /**
+   * Appends all errors and warnings from the given messages container to this one. The limits and warnings support of
+   * this container apply.
+   *
+   * @param msgs The messages to append. May be null.
+   */
+  public void addAll(Messages msgs) {
+    if (msgs != null) {
+      for (Diagnostic error : msgs.errors) {
+        addError(error);
+      }
+      for (Diagnostic warning : msgs.warnings) {
+        addWarning(warning);
+      }
+      if (this.warningsEnabled) {
+        for (Map.Entry<Diagnostic.Code, Integer> omitted : msgs.omittedWarnings.entrySet()) {
+          omitWarnings(omitted.getKey(), omitted.getValue());
+        }
+      }
     }
   }
 
+  /**
+   * Creates a new empty container with the same limits and warnings support as this one.
+   *
+   * @return A new messages container.
+   */
+  public Messages newMessages() {
+    return new Messages(this.errorLimit, this.warningsEnabled, this.warningLimit);
+  }
+
+  /**
+   * Informs whether the error limit has been reached, meaning that parsing should stop.
+   *
+   * @return A Boolean that is true when no more errors are accepted.
+   */
+  public boolean isErrorLimitReached() {
+    return this.errorLimit > 0 && this.errors.size() >= this.errorLimit;
+  }
+
+  /**
+   * Informs whether warnings are added to this container.
+   *
+   * @return A Boolean that is true when warnings are not ignored.
+   */
+  public boolean isWarningsEnabled() {
+    return this.warningsEnabled;
+  }
+
   /**
    * Provides all contained error messages as an array.
    *
    * @return An array containing all error messages.
    */
   public String[] getErrors() {
-    return this.errors.toArray(new String[this.errors.size()]);
+    return format(this.errors);
   }
 
   /**
-   * Provides all contained warning messages as an array.
+   * Provides all contained (stored) warning messages as an array.
    *
-   * @return An array containing all warning messages.
+   * @return An array containing all stored warning messages.
    */
   public String[] getWarnings() {
-    return this.warnings.toArray(new String[this.warnings.size()]);
+    return format(this.warnings);
+  }
+
+  /**
+   * Provides all contained errors as diagnostics.
+   *
+   * @return A new list containing all error diagnostics.
+   */
+  public List<Diagnostic> getErrorDiagnostics() {
+    return new ArrayList<Diagnostic>(this.errors);
+  }
+
+  /**
+   * Provides all contained (stored) warnings as diagnostics.
+   *
+   * @return A new list containing all stored warning diagnostics.
+   */
+  public List<Diagnostic> getWarningDiagnostics() {
+    return new ArrayList<Diagnostic>(this.warnings);
+  }
+
+  /**
+   * Reports how many warnings with given code were not stored due to the warning limit.
+   *
+   * @param code The diagnostic code.
+   * @return The count of warnings that were only counted.
+   */
+  public int getOmittedWarningCount(Diagnostic.Code code) {
+    Integer count = this.omittedWarnings.get(code);
+    return count == null ? 0 : count;
   }
 
   /**
@@ -83,12 +245,12 @@ public final class Messages {
   }
 
   /**
-   * Reports current warning messages count.
+   * Reports current warning messages count, including the warnings not stored due to the warning limit.
    *
    * @return The count of warning messages.
    */
   public int getWarningCount() {
-    return this.warnings.size();
+    return this.warnings.size() + this.omittedWarningCount;
   }
 
   /**
@@ -106,7 +268,7 @@ public final class Messages {
    * @return A Boolean that is true when at least one warning message exists..
    */
   public boolean hasWarnings() {
-    return !this.warnings.isEmpty();
+    return getWarningCount() > 0;
   }
 
   /**
@@ -115,6 +277,8 @@ public final class Messages {
   public void clear() {
     this.errors.clear();
     this.warnings.clear();
+    this.omittedWarnings.clear();
+    this.omittedWarningCount = 0;
   }
 
   /**
@@ -129,10 +293,17 @@ public final class Messages {
     if (ps != null && (hasErrors() || hasWarnings())) {
       ps.println("=========================");
       if (hasErrors()) {
-        write(ps, "ERRORS", this.errors);
+        write(ps, "ERRORS", this.errors, this.errors.size());
       }
       if (hasWarnings()) {
-        write(ps, "WARNINGS", this.warnings);
+        write(ps, "WARNINGS", this.warnings, getWarningCount());
+        for (Map.Entry<Diagnostic.Code, Integer> omitted : this.omittedWarnings.entrySet()) {
+          ps.print("... and ");
+          ps.print(omitted.getValue());
+          ps.print(" more ");
+          ps.print(omitted.getKey());
+          ps.println(" warning(s).");
+        }
       }
       ps.flush();
     }
@@ -149,14 +320,27 @@ public final class Messages {
     return result;
   }
 
-  private void write(PrintStream ps, String name, List<String> rows) {
+  private void omitWarnings(Diagnostic.Code code, int count) {
+    this.omittedWarnings.put(code, getOmittedWarningCount(code) + count);
+    this.omittedWarningCount += count;
+  }
+
+  private static String[] format(List<Diagnostic> diagnostics) {
+    String[] result = new String[diagnostics.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = diagnostics.get(i).toString();
+    }
+    return result;
+  }
+
+  private void write(PrintStream ps, String name, List<Diagnostic> rows, int total) {
     ps.print(name);
     ps.print(" (");
-    ps.print(rows.size());
+    ps.print(total);
     ps.println("):");
 
     int i = 1;
-    for (String msg : rows) {
+    for (Diagnostic msg : rows) {
       ps.print(i++);
       ps.print(". ");
       ps.println(msg);
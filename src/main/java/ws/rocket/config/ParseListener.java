@@ -0,0 +1,99 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config;
+
+/**
+ * A receiver of measurements taken while parsing a configuration stream. This enables finding out which section or
+ * value conversion slows down parsing, without attaching a profiler.
+ * <p>
+ * Each measured phase (parsing the stream, reading a section, writing a section) is announced by a start method before
+ * the phase and reported by the corresponding measurement method after the phase, both in the same thread. When beans
+ * are constructed in parallel, some of the methods may be called by several threads at the same time.
+ *
+ * @author Martti Tamm
+ * @see ParseStats
+ * @see ConfigModel#parse(java.io.InputStream, ParseListener)
+ * @see MapConfigModel#parse(java.io.InputStream, ParseListener)
+ */
+public interface ParseListener {
+
+  /**
+   * Receives the notice that parsing of a configuration stream starts in current thread. The measurements are reported
+   * through {@link #parseCompleted(long, long, Messages)}.
+   */
+  void parseStarted();
+
+  /**
+   * Receives the notice that reading the content of a section starts in current thread. The measurements are reported
+   * through {@link #sectionRead(String, int, long, long)}.
+   *
+   * @param section The section name.
+   */
+  void sectionReadStarted(String section);
+
+  /**
+   * Receives the notice that writing the data of a section to the configuration bean starts in current thread. The
+   * measurement is reported through {@link #sectionWritten(String, long)}.
+   *
+   * @param section The section name.
+   */
+  void sectionWriteStarted(String section);
+
+  /**
+   * Receives the measurements of reading the content of a section (not including its header line).
+   *
+   * @param section The section name.
+   * @param lines The amount of content lines read.
+   * @param bytes The amount of content bytes read.
+   * @param nanos The time spent on reading (and converting the values), in nanoseconds.
+   */
+  void sectionRead(String section, int lines, long bytes, long nanos);
+
+  /**
+   * Receives the measurement of writing the data of a section to the configuration bean.
+   *
+   * @param section The section name.
+   * @param nanos The time spent on writing, in nanoseconds.
+   */
+  void sectionWritten(String section, long nanos);
+
+  /**
+   * Receives the outcome of a value conversion.
+   *
+   * @param targetType The target type of the conversion.
+   * @param success A Boolean that is true when the conversion succeeded.
+   */
+  void valueConverted(Class<?> targetType, boolean success);
+
+  /**
+   * Receives the notice of a bean property that was written (via setter method or field).
+   *
+   * @param property The property name.
+   */
+  void propertySet(String property);
+
+  /**
+   * Receives the measurements and the outcome of parsing the whole configuration stream.
+   *
+   * @param nanos The time spent on parsing, in nanoseconds.
+   * @param allocatedBytes The amount of bytes allocated by the parsing thread, or -1 when not supported by the Java
+   *                       runtime.
+   * @param messages The errors and warnings of the parsing (the parsing failed when there are errors).
+   */
+  void parseCompleted(long nanos, long allocatedBytes, Messages messages);
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config;
+
+import java.io.File;
+
+/**
+ * The outcome of parsing a configuration file in bulk: the parsed configuration (when there were no errors) and the
+ * messages logged while parsing the file.
+ *
+ * @param <R> The type of the parsed configuration.
+ *
+ * @author Martti Tamm
+ * @see ConfigModel#parseAll(java.util.Collection)
+ * @see MapConfigModel#parseAll(java.util.Collection)
+ */
+public final class ParseResult<R> {
+
+  private final File file;
+
+  private final R result;
+
+  private final Messages msgs;
+
+  /**
+   * Creates a new parse result.
+   *
+   * @param file The parsed file.
+   * @param result The parsed configuration, or null when parsing failed.
+   * @param messages The messages logged while parsing the file (required).
+   */
+  public ParseResult(File file, R result, Messages messages) {
+    if (messages == null) {
+      throw new NullPointerException("Given messages is a null reference");
+    }
+    this.file = file;
+    this.result = result;
+    this.msgs = messages;
+  }
+
+  /**
+   * Provides the parsed file.
+   *
+   * @return The parsed file.
+   */
+  public File getFile() {
+    return this.file;
+  }
+
+  /**
+   * Provides the parsed configuration.
+   *
+   * @return The parsed configuration, or null when parsing failed.
+   */
+  public R getResult() {
+    return this.result;
+  }
+
+  /**
+   * Provides the messages (errors and warnings) logged while parsing the file.
+   *
+   * @return The messages object.
+   */
+  public Messages getMessages() {
+    return this.msgs;
+  }
+
+  /**
+   * Reports whether the file was parsed without errors.
+   *
+   * @return A Boolean that is true when the file was parsed without errors.
+   */
+  public boolean isSuccess() {
+    return !this.msgs.hasErrors();
+  }
+
+  @Override
+  public String toString() {
+    return "ParseResult[" + this.file + ": " + this.msgs.getErrorCount() + " error(s) and "
+        + this.msgs.getWarningCount() + " warnings]";
+  }
+
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A parse listener that collects a summary of the measurements. The same instance may be used for parsing several
+ * configuration streams (also in parallel), in which case the measurements are summed up. Value conversions and
+ * written properties are counted without locking, as they are reported for every value.
+ * <p>
+ * Sections are measured by name up to a limit (by default {@value #DEFAULT_MAX_SECTIONS} names), so that parsing
+ * files with many distinct section names (e.g. one section per tenant of a map model) does not grow the statistics
+ * without bounds. The measurements of further section names are summed up under a single overflow entry.
+ *
+ * @author Martti Tamm
+ */
+public final class ParseStats implements ParseListener {
+
+  /**
+   * The default maximum amount of section names that are measured separately.
+   */
+  public static final int DEFAULT_MAX_SECTIONS = 100;
+
+  private final Map<String, long[]> sections = new LinkedHashMap<String, long[]>();
+
+  private final long[] overflow = new long[4];
+
+  private final int maxSections;
+
+  private long overflowCount;
+
+  private final ConcurrentMap<Class<?>, AtomicLongArray> conversions =
+      new ConcurrentHashMap<Class<?>, AtomicLongArray>();
+
+  private final AtomicLong propertyCount = new AtomicLong();
+
+  private long parseCount;
+
+  private long parseNanos;
+
+  private long allocatedBytes;
+
+  private long errorCount;
+
+  private long warningCount;
+
+  private static final int LINES = 0;
+
+  private static final int BYTES = 1;
+
+  private static final int READ_NANOS = 2;
+
+  private static final int WRITE_NANOS = 3;
+
+  /**
+   * Creates a new statistics collector that measures up to {@value #DEFAULT_MAX_SECTIONS} section names separately.
+   */
+  public ParseStats() {
+    this(DEFAULT_MAX_SECTIONS);
+  }
+
+  /**
+   * Creates a new statistics collector that measures up to given amount of section names separately.
+   *
+   * @param maxSections The maximum amount of section names to measure separately (not negative).
+   */
+  public ParseStats(int maxSections) {
+    if (maxSections < 0) {
+      throw new IllegalArgumentException("Section limit must not be negative");
+    }
+    this.maxSections = maxSections;
+  }
+
+  @Override
+  public void parseStarted() {
+    // Only the completed parsing is measured.
+  }
+
+  @Override
+  public void sectionReadStarted(String section) {
+    // Only the completed reading is measured.
+  }
+
+  @Override
+  public void sectionWriteStarted(String section) {
+    // Only the completed writing is measured.
+  }
+
+  @Override
+  public synchronized void sectionRead(String section, int lines, long bytes, long nanos) {
+    long[] stats = getSection(section);
+    if (stats == this.overflow) {
+      this.overflowCount++;
+    }
+    stats[LINES] += lines;
+    stats[BYTES] += bytes;
+    stats[READ_NANOS] += nanos;
+  }
+
+  @Override
+  public synchronized void sectionWritten(String section, long nanos) {
+    getSection(section)[WRITE_NANOS] += nanos;
+  }
+
+  @Override
+  public void valueConverted(Class<?> targetType, boolean success) {
+    AtomicLongArray stats = this.conversions.get(targetType);
+    if (stats == null) {
+      stats = new AtomicLongArray(2);
+      AtomicLongArray other = this.conversions.putIfAbsent(targetType, stats);
+      if (other != null) {
+        stats = other;
+      }
+    }
+    stats.incrementAndGet(success ? 0 : 1);
+  }
+
+  @Override
+  public void propertySet(String property) {
+    this.propertyCount.incrementAndGet();
+  }
+
+  @Override
+  public synchronized void parseCompleted(long nanos, long allocated, Messages messages) {
+    this.parseCount++;
+    this.errorCount += messages.getErrorCount();
+    this.warningCount += messages.getWarningCount();
+    this.parseNanos += nanos;
+    if (allocated > 0) {
+      this.allocatedBytes += allocated;
+    }
+  }
+
+  /**
+   * Provides the names of measured sections in the order they were first read.
+   *
+   * @return An unmodifiable copy of section names.
+   */
+  public synchronized Iterable<String> getSectionNames() {
+    return Collections.unmodifiableList(new ArrayList<String>(this.sections.keySet()));
+  }
+
+  /**
+   * Provides the amount of content lines read from sections with given name.
+   *
+   * @param section The section name.
+   * @return The amount of lines.
+   */
+  public synchronized long getSectionLines(String section) {
+    return getSectionStat(section, LINES);
+  }
+
+  /**
+   * Provides the amount of content bytes read from sections with given name.
+   *
+   * @param section The section name.
+   * @return The amount of bytes.
+   */
+  public synchronized long getSectionBytes(String section) {
+    return getSectionStat(section, BYTES);
+  }
+
+  /**
+   * Provides the time spent on reading sections with given name.
+   *
+   * @param section The section name.
+   * @return The time in nanoseconds.
+   */
+  public synchronized long getSectionReadNanos(String section) {
+    return getSectionStat(section, READ_NANOS);
+  }
+
+  /**
+   * Provides the time spent on writing the data of sections with given name to configuration beans.
+   *
+   * @param section The section name.
+   * @return The time in nanoseconds.
+   */
+  public synchronized long getSectionWriteNanos(String section) {
+    return getSectionStat(section, WRITE_NANOS);
+  }
+
+  /**
+   * Provides the amount of section reads that were not measured by section name, because the limit of measured
+   * section names was reached. Their measurements are included in {@link #toString()} as a single entry.
+   *
+   * @return The amount of section reads not measured by name.
+   */
+  public synchronized long getOverflowCount() {
+    return this.overflowCount;
+  }
+
+  /**
+   * Provides the amount of conversions to given type.
+   *
+   * @param targetType The target type of conversions.
+   * @param success When true, successful conversions are counted; otherwise, failed conversions are counted.
+   * @return The amount of conversions.
+   */
+  public long getConversionCount(Class<?> targetType, boolean success) {
+    AtomicLongArray stats = this.conversions.get(targetType);
+    return stats == null ? 0 : stats.get(success ? 0 : 1);
+  }
+
+  /**
+   * Provides the amount of bean properties written.
+   *
+   * @return The amount of properties written.
+   */
+  public long getPropertyCount() {
+    return this.propertyCount.get();
+  }
+
+  /**
+   * Provides the amount of parsed configuration streams.
+   *
+   * @return The amount of completed parses.
+   */
+  public synchronized long getParseCount() {
+    return this.parseCount;
+  }
+
+  /**
+   * Provides the total time spent on parsing.
+   *
+   * @return The time in nanoseconds.
+   */
+  public synchronized long getParseNanos() {
+    return this.parseNanos;
+  }
+
+  /**
+   * Provides the total amount of bytes allocated by the parsing threads (when supported by the Java runtime).
+   *
+   * @return The amount of allocated bytes.
+   */
+  public synchronized long getAllocatedBytes() {
+    return this.allocatedBytes;
+  }
+
+  /**
+   * Provides the total amount of errors reported by parsing.
+   *
+   * @return The amount of errors.
+   */
+  public synchronized long getErrorCount() {
+    return this.errorCount;
+  }
+
+  /**
+   * Provides the total amount of warnings reported by parsing.
+   *
+   * @return The amount of warnings.
+   */
+  public synchronized long getWarningCount() {
+    return this.warningCount;
+  }
+
+  @Override
+  public synchronized String toString() {
+    StringBuilder sb = new StringBuilder(256);
+    sb.append("Parsed ").append(this.parseCount).append(" time(s) in ").append(this.parseNanos / 1000)
+        .append(" us, allocated ").append(this.allocatedBytes).append(" bytes, set ").append(this.propertyCount.get())
+        .append(" properties, got ").append(this.errorCount).append(" errors and ").append(this.warningCount)
+        .append(" warnings.");
+
+    for (Map.Entry<String, long[]> section : this.sections.entrySet()) {
+      sb.append("\n[").append(section.getKey()).append("]: ");
+      appendSection(sb, section.getValue());
+    }
+
+    if (this.overflowCount > 0) {
+      sb.append("\n").append(this.overflowCount).append(" more section(s): ");
+      appendSection(sb, this.overflow);
+    }
+
+    for (Map.Entry<Class<?>, AtomicLongArray> conversion : this.conversions.entrySet()) {
+      sb.append("\n").append(conversion.getKey().getName()).append(": ").append(conversion.getValue().get(0))
+          .append(" converted, ").append(conversion.getValue().get(1)).append(" failed");
+    }
+    return sb.toString();
+  }
+
+  private static void appendSection(StringBuilder sb, long[] stats) {
+    sb.append(stats[LINES]).append(" lines, ").append(stats[BYTES]).append(" bytes, read in ")
+        .append(stats[READ_NANOS] / 1000).append(" us, written in ").append(stats[WRITE_NANOS] / 1000).append(" us");
+  }
+
+  private long[] getSection(String section) {
+    long[] stats = this.sections.get(section);
+    if (stats == null) {
+      if (this.sections.size() >= this.maxSections) {
+        return this.overflow;
+      }
+      stats = new long[4];
+      this.sections.put(section, stats);
+    }
+    return stats;
+  }
+
+  private long getSectionStat(String section, int index) {
+    long[] stats = this.sections.get(section);
+    return stats == null ? 0 : stats[index];
+  }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+/**
+ * Measures the time and the bytes allocated by current thread while parsing, and reports them to a parse listener.
+ * The amount of allocated bytes is available on Java runtimes that provide
+ * <code>com.sun.management.ThreadMXBean</code>; it is looked up reflectively.
+ *
+ * @author Martti Tamm
+ */
+final class ParseTimer {
+
+  private static final Method ALLOCATED_BYTES = findAllocatedBytesMethod();
+
+  private final ParseListener listener;
+
+  private final long startNanos;
+
+  private final long startAllocated;
+
+  /**
+   * Starts measuring parsing in current thread.
+   *
+   * @param listener The listener to report to. When null, nothing is measured.
+   */
+  ParseTimer(ParseListener listener) {
+    if (listener != null) {
+      listener.parseStarted();
+    }
+    this.listener = listener;
+    this.startNanos = listener != null ? System.nanoTime() : 0;
+    this.startAllocated = listener != null ? allocatedBytes() : -1;
+  }
+
+  /**
+   * Completes measuring, and reports the measurements to the listener.
+   *
+   * @param messages The errors and warnings of the parsing.
+   */
+  void complete(Messages messages) {
+    if (this.listener != null) {
+      long allocated = allocatedBytes();
+      this.listener.parseCompleted(System.nanoTime() - this.startNanos,
+          allocated >= 0 && this.startAllocated >= 0 ? allocated - this.startAllocated : -1, messages);
+    }
+  }
+
+  private static long allocatedBytes() {
+    if (ALLOCATED_BYTES != null) {
+      try {
+        Object bytes = ALLOCATED_BYTES.invoke(ManagementFactory.getThreadMXBean(), Thread.currentThread().getId());
+        return (Long) bytes;
+      } catch (Exception e) {
+        return -1;
+      }
+    }
+    return -1;
+  }
+
+  private static Method findAllocatedBytesMethod() {
+    try {
+      ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      Class<?> beanType = Class.forName("com.sun.management.ThreadMXBean");
+
+      if (beanType.isInstance(bean)) {
+        Method isSupported = beanType.getMethod("isThreadAllocatedMemorySupported");
+        Method isEnabled = beanType.getMethod("isThreadAllocatedMemoryEnabled");
+
+        if ((Boolean) isSupported.invoke(bean) && (Boolean) isEnabled.invoke(bean)) {
+          return beanType.getMethod("getThreadAllocatedBytes", long.class);
+        }
+      }
+    } catch (Exception e) {
+      // Not supported by the Java runtime.
+      return null;
+    }
+    return null;
+  }
+
+}
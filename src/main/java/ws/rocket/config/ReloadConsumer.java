@@ -0,0 +1,38 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config;
+
+/**
+ * A receiver of the configuration that a {@link ConfigMonitor} has parsed again, so that the application can start
+ * using the reloaded configuration.
+ *
+ * @param <T> The type of the parsed configuration.
+ *
+ * @author Martti Tamm
+ * @see ConfigMonitor#attach(ConfigModel, java.io.File, ReloadConsumer)
+ * @see ConfigMonitor#attach(MapConfigModel, java.io.File, ReloadConsumer)
+ */
+public interface ReloadConsumer<T> {
+
+  /**
+   * Receives the configuration that was parsed without errors.
+   *
+   * @param config The reloaded configuration.
+   */
+  void accept(T config);
+
+}
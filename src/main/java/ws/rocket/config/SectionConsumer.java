@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config;
+
+/**
+ * A receiver of configuration beans that are handed over one by one, as soon as each section has been parsed.
+ *
+ * @param <T> The type of the configuration bean.
+ *
+ * @author Martti Tamm
+ * @see MapConfigModel#parse(java.io.InputStream, SectionConsumer)
+ */
+public interface SectionConsumer<T> {
+
+  /**
+   * Receives the configuration bean of a parsed section.
+   *
+   * @param sectionName The name of the parsed section.
+   * @param bean The configuration bean constructed from the section data.
+   */
+  void accept(String sectionName, T bean);
+
+}
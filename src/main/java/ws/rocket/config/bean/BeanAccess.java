@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config.bean;
+
+/**
+ * Describes how configuration values are written to bean properties.
+ *
+ * @author Martti Tamm
+ */
+public enum BeanAccess {
+
+  /**
+   * Values are written by calling public setter methods of the bean. This is the default.
+   */
+  SETTERS,
+
+  /**
+   * Values are written directly to the (non-static, non-final) fields of the bean, regardless of their visibility. The
+   * field name must match the property name. Setter methods are used only for properties that have no such field.
+   */
+  FIELDS
+
+}
@@ -33,17 +33,32 @@ public final class BeanContext<T> {
 
   private final BeanValidator validator;
 
+  private final BeanAccess access;
+
   /**
    * Creates a new bean context for given type. The value converter instance will be used for converting
-   * <code>String</code> values to runtime types used by target bean.
+   * <code>String</code> values to runtime types used by target bean. Bean properties will be written via setters.
    * 
    * @param type The target configuration bean type.
    * @param valueConverter A converter to use for bean property value conversion from <code>String</code>.
    */
   public BeanContext(Class<T> type, ValueConverter valueConverter) {
-    this.beanType = new BeanType<T>(type);
+    this(type, valueConverter, BeanAccess.SETTERS);
+  }
+
+  /**
+   * Creates a new bean context for given type. The value converter instance will be used for converting
+   * <code>String</code> values to runtime types used by target bean.
+   * 
+   * @param type The target configuration bean type.
+   * @param valueConverter A converter to use for bean property value conversion from <code>String</code>.
+   * @param access The way bean properties are written.
+   */
+  public BeanContext(Class<T> type, ValueConverter valueConverter, BeanAccess access) {
+    this.beanType = BeanType.of(type);
     this.valueConverter = valueConverter;
-    this.validator = new BeanValidator(this.beanType);
+    this.access = access;
+    this.validator = new BeanValidator(this.beanType, access);
   }
 
   /**
@@ -62,7 +77,7 @@ public final class BeanContext<T> {
    * @return The created writer.
    */
   public BeanWriter<T> createWithBean(Messages messages) {
-    return BeanWriter.createWithBean(this.beanType, this.valueConverter, messages);
+    return BeanWriter.createWithBean(this.beanType, this.valueConverter, this.access, messages);
   }
 
   /**
@@ -73,7 +88,7 @@ public final class BeanContext<T> {
    * @return The created writer.
    */
   public BeanWriter<T> createWriter(Messages messages) {
-    return BeanWriter.create(this.beanType, this.valueConverter, messages);
+    return BeanWriter.create(this.beanType, this.valueConverter, this.access, messages);
   }
 
   /**
@@ -85,6 +100,15 @@ public final class BeanContext<T> {
     return this.validator;
   }
 
+  /**
+   * Provides the way bean properties are written.
+   * 
+   * @return The bean property access.
+   */
+  public BeanAccess getBeanAccess() {
+    return this.access;
+  }
+
   /**
    * Provides value conversion functionality used for the underlying bean.
    * 
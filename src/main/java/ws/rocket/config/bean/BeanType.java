@@ -16,24 +16,83 @@
 
 package ws.rocket.config.bean;
 
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Helper class for a Java bean type introspection.
+ * <p>
+ * The public setter methods and constructors of the type are looked up once, when the instance is created. To share
+ * this information between configuration models, use {@link #of(Class)}, which returns the same instance for a class
+ * as long as it is still referenced by some model.
  *
  * @param <T> The bean type.
  * @author Martti Tamm
  */
 public final class BeanType<T> {
 
+  private static final Map<Class<?>, Reference<BeanType<?>>> REGISTRY
+      = new WeakHashMap<Class<?>, Reference<BeanType<?>>>();
+
+  /**
+   * Provides the shared bean type information for given class. The information is created on first request and reused
+   * by all following requests while it is in use. The registry does not keep classes (nor their class loaders) from
+   * being unloaded.
+   *
+   * @param <T> The bean type.
+   * @param type The targeted bean type.
+   * @return The bean type information.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> BeanType<T> of(Class<T> type) {
+    BeanType<?> result = lookup(type);
+
+    if (result == null) {
+      BeanType<T> created = new BeanType<T>(type);
+
+      synchronized (REGISTRY) {
+        result = lookup(type);
+        if (result == null) {
+          REGISTRY.put(type, new WeakReference<BeanType<?>>(created));
+          result = created;
+        }
+      }
+    }
+
+    return (BeanType<T>) result;
+  }
+
+  private static BeanType<?> lookup(Class<?> type) {
+    Reference<BeanType<?>> ref;
+    synchronized (REGISTRY) {
+      ref = REGISTRY.get(type);
+    }
+    return ref != null ? ref.get() : null;
+  }
+
   private final Class<T> type;
 
+  private final Map<String, List<Method>> setters;
+
+  private final Constructor<?>[] constructors;
+
+  private volatile Map<String, Field> fields;
+
   /**
    * Creates a new instance for working with given class. This class does not strictly check whether the target type is
    * a class, an abstract class, enumeration, or an interface.
+   * <p>
+   * Prefer {@link #of(Class)}, which avoids repeating the introspection for the same class.
    * 
    * @param type The targeted bean type.
    */
@@ -42,6 +101,8 @@ public final class BeanType<T> {
       throw new NullPointerException("Got null for bean type");
     }
     this.type = type;
+    this.setters = findSetters(type);
+    this.constructors = type.getConstructors();
   }
 
   /**
@@ -61,18 +122,16 @@ public final class BeanType<T> {
    * @return The found setter method or <code>null</code>.
    */
   public Method getSetterMethod(String property, Class<?> paramType) {
-    String methodName = getSetterMethodName(property);
-    Method method;
-
-    try {
-      method = this.type.getMethod(methodName, paramType);
-    } catch (NoSuchMethodException e) {
-      method = null;
-    } catch (SecurityException e) {
-      method = null;
+    Method result = null;
+
+    for (Method method : getSetterMethods(property)) {
+      if (method.getParameterTypes()[0] == paramType) {
+        result = method;
+        break;
+      }
     }
 
-    return method;
+    return result;
   }
 
   /**
@@ -101,19 +160,52 @@ public final class BeanType<T> {
    * Looks up all setter methods for <code>property</code> that accept exactly one parameter.
    * 
    * @param property The Java bean property name.
-   * @return A list with found setter methods.
+   * @return An unmodifiable list with found setter methods.
    */
   public List<Method> getSetterMethods(String property) {
-    String methodName = getSetterMethodName(property);
-    List<Method> result = new ArrayList<Method>(2);
+    List<Method> result = this.setters.get(getSetterMethodName(property));
+    return result != null ? result : Collections.<Method>emptyList();
+  }
 
-    for (Method method : this.type.getMethods()) {
-      if (method.getName().equals(methodName) && method.getParameterTypes().length == 1) {
-        result.add(method);
-      }
+  /**
+   * Looks up a writable field for <code>property</code>. The field may be declared in this type or in any of its
+   * super-classes, and it may have any visibility, but it must not be static nor final. The fields are looked up (and
+   * made accessible) once, on first call to this method.
+   * 
+   * @param property The Java bean property name.
+   * @return The found field or <code>null</code>.
+   */
+  public Field getField(String property) {
+    if (property == null) {
+      throw new NullPointerException("Got null reference instead of bean property name.");
     }
 
-    return result;
+    Map<String, Field> result = this.fields;
+    if (result == null) {
+      result = findFields(this.type);
+      this.fields = result;
+    }
+    return result.get(property);
+  }
+
+  /**
+   * Looks up a Java type for given <code>property</code> that has a constructor with
+   * <code>typeConstrParamCount</code> parameters. With field access, the type of the property field is checked before
+   * the setter methods.
+   * 
+   * @param property The Java bean property name.
+   * @param typeConstrParamCount The required amount of parameters for property type constructor.
+   * @param access The way the property is written.
+   * @return The first found property type that has a constructor with required amount of parameters.
+   */
+  public Class<?> getPropertyType(String property, int typeConstrParamCount, BeanAccess access) {
+    if (access == BeanAccess.FIELDS) {
+      Field field = getField(property);
+      if (field != null && !getConstructors(field.getType(), typeConstrParamCount).isEmpty()) {
+        return field.getType();
+      }
+    }
+    return getPropertyType(property, typeConstrParamCount);
   }
 
   /**
@@ -147,24 +239,20 @@ public final class BeanType<T> {
    * @return A list containing all found constructors.
    */
   public List<Constructor<?>> getConstructors(int paramCount) {
-    return getConstructors(this.type, paramCount);
+    return filterConstructors(this.constructors, paramCount);
   }
 
   /**
-   * Looks up all constructors of given <code>type</code> that have <code>paramCount</code> parameters.
+   * Looks up all constructors of given <code>type</code> that have <code>paramCount</code> parameters. Only the
+   * constructors of the type are scanned: the type is not introspected nor registered (see {@link #of(Class)}), as
+   * property value types are usually not referenced by any model.
    * 
    * @param type The class type.
    * @param paramCount The required amount of parameters.
    * @return A list containing all found constructors.
    */
   public static List<Constructor<?>> getConstructors(Class<?> type, int paramCount) {
-    List<Constructor<?>> result = new ArrayList<Constructor<?>>(type.getConstructors().length);
-    for (Constructor<?> constr : type.getConstructors()) {
-      if (constr.getParameterTypes().length == paramCount) {
-        result.add(constr);
-      }
-    }
-    return result;
+    return filterConstructors(type.getConstructors(), paramCount);
   }
 
   /**
@@ -179,6 +267,62 @@ public final class BeanType<T> {
     return this.type.getName();
   }
 
+  private static List<Constructor<?>> filterConstructors(Constructor<?>[] constructors, int paramCount) {
+    List<Constructor<?>> result = new ArrayList<Constructor<?>>(constructors.length);
+    for (Constructor<?> constr : constructors) {
+      if (constr.getParameterTypes().length == paramCount) {
+        result.add(constr);
+      }
+    }
+    return result;
+  }
+
+  private static Map<String, List<Method>> findSetters(Class<?> type) {
+    Map<String, List<Method>> result = new HashMap<String, List<Method>>();
+
+    for (Method method : type.getMethods()) {
+      if (method.getName().startsWith("set") && method.getParameterTypes().length == 1) {
+        List<Method> methods = result.get(method.getName());
+        if (methods == null) {
+          methods = new ArrayList<Method>(2);
+          result.put(method.getName(), methods);
+        }
+        methods.add(method);
+      }
+    }
+
+    for (Map.Entry<String, List<Method>> entry : result.entrySet()) {
+      entry.setValue(Collections.unmodifiableList(entry.getValue()));
+    }
+
+    return result;
+  }
+
+  private static Map<String, Field> findFields(Class<?> type) {
+    Map<String, Field> result = new HashMap<String, Field>();
+
+    for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+      for (Field field : c.getDeclaredFields()) {
+        int modifiers = field.getModifiers();
+
+        if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic()
+            || result.containsKey(field.getName())) {
+          continue;
+        }
+
+        try {
+          field.setAccessible(true);
+          result.put(field.getName(), field);
+        } catch (RuntimeException e) {
+          // The field remains unavailable when access checks cannot be suppressed.
+          continue;
+        }
+      }
+    }
+
+    return result;
+  }
+
   private static String getSetterMethodName(String property) {
     if (property == null) {
       throw new NullPointerException("Got null reference instead of bean property name.");
@@ -16,6 +16,7 @@
 
 package ws.rocket.config.bean;
 
+import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Map;
 
@@ -30,13 +31,26 @@ public final class BeanValidator {
 
   private final BeanType<?> type;
 
+  private final BeanAccess access;
+
   /**
-   * Creates a new instance of validator for given bean type.
+   * Creates a new instance of validator for given bean type. The properties are expected to be written via setters.
    * 
    * @param beanType Targeted bean type.
    */
   public BeanValidator(BeanType<?> beanType) {
+    this(beanType, BeanAccess.SETTERS);
+  }
+
+  /**
+   * Creates a new instance of validator for given bean type and property access.
+   * 
+   * @param beanType Targeted bean type.
+   * @param access The way bean properties are written.
+   */
+  public BeanValidator(BeanType<?> beanType, BeanAccess access) {
     this.type = beanType;
+    this.access = access;
   }
 
   /**
@@ -58,12 +72,13 @@ public final class BeanValidator {
   }
 
   /**
-   * Checks that the underlying type has at least one setter method for given property.
+   * Checks that the underlying type has at least one setter method for given property. With field access, a writable
+   * field for the property is also accepted.
    * 
    * @param property The bean property name to check (required).
    */
   public void requireSetterMethod(String property) {
-    if (this.type.getSetterMethods(property).isEmpty()) {
+    if (this.type.getSetterMethods(property).isEmpty() && getField(property) == null) {
       throw new ModelException("Property '" + property + "' is not writable or does not exist in "
           + this.type.toString());
     }
@@ -71,7 +86,8 @@ public final class BeanValidator {
 
   /**
    * Checks that the underlying type has at least one setter method for given property that accepts a parameter that is
-   * either of <code>collectionType</code> or an array of <code>arrayCompType</code>.
+   * either of <code>collectionType</code> or an array of <code>arrayCompType</code>. With field access, a field that
+   * accepts either of these is also accepted.
    * 
    * @param property The bean property name to check (required).
    * @param collectionType The collection type to check (required).
@@ -79,7 +95,8 @@ public final class BeanValidator {
    */
   public void requireProperty(String property, Class<?> collectionType, Class<?> arrayCompType) {
     if (this.type.getSetterMethod(property, collectionType) == null
-            && this.type.getSetterMethodWithArray(property, arrayCompType) == null) {
+            && this.type.getSetterMethodWithArray(property, arrayCompType) == null
+            && !isFieldOf(property, collectionType, arrayCompType)) {
 
       StringBuilder msg = new StringBuilder(100);
       msg.append("Property '").append(property).append("' (").append(collectionType.getName());
@@ -102,7 +119,7 @@ public final class BeanValidator {
    * @param constrParamCount The amount of parameters required for the class constructor.
    */
   public void requirePropertyValueConstructor(String property, int constrParamCount) {
-    Class<?> propType = this.type.getPropertyType(property, constrParamCount);
+    Class<?> propType = this.type.getPropertyType(property, constrParamCount, this.access);
     if (propType == null) {
         throw new ModelException("Did not find accessible constructors with " + constrParamCount
                 + " parameter(s) to create an instance of the object for setting it to property " + property + ".");
@@ -127,4 +144,19 @@ public final class BeanValidator {
     }
   }
 
+  private Field getField(String property) {
+    return this.access == BeanAccess.FIELDS ? this.type.getField(property) : null;
+  }
+
+  private boolean isFieldOf(String property, Class<?> collectionType, Class<?> arrayCompType) {
+    Field field = getField(property);
+    if (field == null) {
+      return false;
+    }
+
+    Class<?> fieldType = field.getType();
+    return fieldType.isAssignableFrom(collectionType)
+        || fieldType.isArray() && fieldType.getComponentType().equals(arrayCompType);
+  }
+
 }
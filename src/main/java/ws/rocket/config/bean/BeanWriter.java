@@ -18,13 +18,18 @@ package ws.rocket.config.bean;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import ws.rocket.config.Diagnostic;
 import ws.rocket.config.Messages;
+import ws.rocket.config.ParseListener;
 import ws.rocket.config.section.SectionValueException;
+import ws.rocket.config.section.value.Conversion;
+import ws.rocket.config.section.value.RangeValueConverter;
 import ws.rocket.config.section.value.ValueConverter;
 
 /**
@@ -47,10 +52,25 @@ public final class BeanWriter<T> {
    * @return The created bean writer or <code>null</code> when bean instance could not be created (check messages then).
    */
   public static <T> BeanWriter<T> createWithBean(BeanType<T> beanType, ValueConverter valueConverter, Messages msgs) {
+    return createWithBean(beanType, valueConverter, BeanAccess.SETTERS, msgs);
+  }
+
+  /**
+   * Creates a new instance of bean and returns a writer for updating it.
+   * 
+   * @param <T> The created bean type.
+   * @param beanType Bean type information.
+   * @param valueConverter Converter for non-String property values.
+   * @param access The way bean properties are written.
+   * @param msgs Messages container for logging errors.
+   * @return The created bean writer or <code>null</code> when bean instance could not be created (check messages then).
+   */
+  public static <T> BeanWriter<T> createWithBean(BeanType<T> beanType, ValueConverter valueConverter,
+      BeanAccess access, Messages msgs) {
     BeanWriter<T> writer = null;
     Class<T> type = beanType.getBeanClass();
     try {
-      writer = new BeanWriter<T>(type.newInstance(), beanType, valueConverter, msgs);
+      writer = new BeanWriter<T>(type.newInstance(), beanType, valueConverter, access, msgs);
     } catch (Exception e) {
       msgs.addError("Could not create instance of " + type.getName() + " using default constructor: " + e);
     }
@@ -67,7 +87,22 @@ public final class BeanWriter<T> {
    * @return The created bean writer or <code>null</code> when bean instance could not be created (check messages then).
    */
   public static <T> BeanWriter<T> create(BeanType<T> beanType, ValueConverter valueConverter, Messages msgs) {
-    return new BeanWriter<T>(null, beanType, valueConverter, msgs);
+    return create(beanType, valueConverter, BeanAccess.SETTERS, msgs);
+  }
+
+  /**
+   * Creates a new instance of bean writer without creating the bean instance.
+   * 
+   * @param <T> The targeted configuration bean type.
+   * @param beanType Bean type information.
+   * @param valueConverter Converter for non-String property values.
+   * @param access The way bean properties are written.
+   * @param msgs Messages container for logging errors.
+   * @return The created bean writer or <code>null</code> when bean instance could not be created (check messages then).
+   */
+  public static <T> BeanWriter<T> create(BeanType<T> beanType, ValueConverter valueConverter, BeanAccess access,
+      Messages msgs) {
+    return new BeanWriter<T>(null, beanType, valueConverter, access, msgs);
   }
 
   private T bean;
@@ -76,12 +111,18 @@ public final class BeanWriter<T> {
 
   private final Messages msgs;
 
-  private final ValueConverter converter;
+  private ValueConverter converter;
+
+  private final BeanAccess access;
+
+  private ParseListener listener;
 
-  private BeanWriter(T bean, BeanType<T> beanType, ValueConverter valueConverter, Messages msgs) {
+  private BeanWriter(T bean, BeanType<T> beanType, ValueConverter valueConverter, BeanAccess access,
+      Messages msgs) {
     this.bean = bean;
     this.type = beanType;
     this.converter = valueConverter;
+    this.access = access;
     this.msgs = msgs;
   }
 
@@ -103,9 +144,51 @@ public final class BeanWriter<T> {
     return this.converter;
   }
 
+  /**
+   * Provides the listener that is notified about value conversions and written properties.
+   * 
+   * @return The parse listener, or <code>null</code> when not set.
+   */
+  public ParseListener getListener() {
+    return this.listener;
+  }
+
+  /**
+   * Sets the listener that is notified about value conversions and written properties. Once set, the converter
+   * returned by {@link #getConverter()} also notifies the listener about the conversions made by section readers.
+   * 
+   * @param parseListener The parse listener (may be null).
+   */
+  public void setListener(ParseListener parseListener) {
+    if (this.converter instanceof ListeningConverter) {
+      this.converter = ((ListeningConverter) this.converter).converter;
+    }
+    if (parseListener != null) {
+      this.converter = new ListeningConverter(this.converter, parseListener);
+    }
+    this.listener = parseListener;
+  }
+
+  /**
+   * Looks up the type of given <code>property</code> that has a constructor with <code>typeConstrParamCount</code>
+   * parameters. This method takes into account the way bean properties are written.
+   * 
+   * @param property The Java bean property name.
+   * @param typeConstrParamCount The required amount of parameters for property type constructor.
+   * @return The found property type or <code>null</code>.
+   * @see BeanType#getPropertyType(String, int, BeanAccess)
+   */
+  public Class<?> getPropertyType(String property, int typeConstrParamCount) {
+    return this.type.getPropertyType(property, typeConstrParamCount, this.access);
+  }
+
   /**
    * Writes a <code>value</code> to the <code>property</code> of the target bean. Null values won't be written.
    * <p>
+   * With field access (see {@link BeanAccess#FIELDS}), the value is written directly to the field with the same name
+   * as the property. A <code>String</code> value is converted to the field type, and a list value is converted to an
+   * array when the field is an array. Setters are used only when the bean has no such field.
+   * <p>
    * For a map or list value, the setter must accept <code>java.util.Map</code> or <code>java.util.List</code>
    * correspondingly. (Therefore, subtypes of these interfaces are not allowed.)
    * <p>
@@ -115,17 +198,26 @@ public final class BeanWriter<T> {
    * If the value is <code>String</code> and no setter for that type is not found, this method also attempts to convert
    * the string value to another parameter type that is available for this property.
    * <p>
-   * Writing errors will be logged to the messages container.
+   * Writing errors will be logged to the messages container. Once the error limit of the container has been reached,
+   * this method does nothing.
    * 
    * @param property The target property name (required).
    * @param value The value to write.
    * @param mainValueType (Optional) The collection value type to determine required array component type.
    */
   public void setProperty(String property, Object value, Class<?> mainValueType) {
-    if (value == null) {
+    if (value == null || this.msgs.isErrorLimitReached()) {
       return;
     }
 
+    if (this.access == BeanAccess.FIELDS) {
+      Field field = this.type.getField(property);
+      if (field != null) {
+        setField(field, value, mainValueType);
+        return;
+      }
+    }
+
     Method m = null;
 
     if (value instanceof Map) {
@@ -137,8 +229,7 @@ public final class BeanWriter<T> {
       // Fallback to array:
       if (m == null && mainValueType != null) {
         m = this.type.getSetterMethodWithArray(property, mainValueType);
-        List<?> list = (List<?>) value;
-        value = list.toArray((Object[]) Array.newInstance(mainValueType, list.size()));
+        value = toArray((List<?>) value, mainValueType);
       }
     } else {
       List<Method> setters = this.type.getSetterMethods(property);
@@ -154,13 +245,17 @@ public final class BeanWriter<T> {
       for (Method method : setters) {
         if (m == null && value instanceof String) {
           Class<?> paramType = method.getParameterTypes()[0];
-          try {
-            value = this.converter.convert((String) value, paramType);
+          Conversion conversion = Conversion.tryConvert(this.converter, (String) value, paramType);
+
+          if (conversion.isSuccess()) {
+            value = conversion.getValue();
             m = method;
             break;
-          } catch (SectionValueException e) {
-            this.msgs.addWarning("Tried to convert value '" + value + "' to " + paramType + " but failed: "
-                + e.getMessage());
+          }
+
+          if (this.msgs.isWarningsEnabled()) {
+            this.msgs.addWarning(new Diagnostic(Diagnostic.Code.CONVERSION_FAILED, null, -1, 0, value, paramType,
+                conversion.getFailureDiagnostic()));
           }
         }
       }
@@ -178,6 +273,7 @@ public final class BeanWriter<T> {
     } else {
       try {
         m.invoke(this.bean, value);
+        propertySet(property);
       } catch (Exception e) {
         addError("Could not call method " + m + ": " + e.getMessage());
       }
@@ -256,14 +352,9 @@ public final class BeanWriter<T> {
     List<Constructor<?>> constructors = BeanType.getConstructors(type, paramNames.length);
 
     for (Constructor<?> constr : constructors) {
-      try {
-        result = attempConstruct(constr, paramNames, values);
-        if (result != null) {
-          break;
-        }
-      } catch (SectionValueException e) {
-        this.msgs.addWarning("Tried to create an instance of class by calling " + constr
-            + " but failed to convert a value to target type: " + e.getMessage());
+      result = attemptConstruct(constr, paramNames, values);
+      if (result != null) {
+        break;
       }
     }
 
@@ -281,40 +372,141 @@ public final class BeanWriter<T> {
     return result;
   }
 
-  private Object attempConstruct(Constructor<?> constr, String[] paramNames, Map<String, String> values)
-      throws SectionValueException {
+  private Object attemptConstruct(Constructor<?> constr, String[] paramNames, Map<String, String> values) {
+    Class<?>[] paramTypes = constr.getParameterTypes();
+    if (paramTypes.length != paramNames.length) {
+      return null;
+    }
+
+    Object[] params = new Object[paramNames.length];
+
+    for (int i = 0; i < paramNames.length; i++) {
+      Conversion conversion = Conversion.tryConvert(this.converter, values.get(paramNames[i]), paramTypes[i]);
+
+      if (!conversion.isSuccess()) {
+        addConstructWarning(constr, conversion);
+        return null;
+      }
+
+      params[i] = conversion.getValue();
+    }
 
     try {
-      Object[] params = resolveParams(constr.getParameterTypes(), paramNames, values);
-      return params != null ? constr.newInstance(params) : null;
+      return constr.newInstance(params);
     } catch (InstantiationException ex) {
-      throw new SectionValueException(ex.toString());
+      addConstructWarning(constr, ex);
     } catch (IllegalAccessException ex) {
-      throw new SectionValueException(ex.toString());
+      addConstructWarning(constr, ex);
     } catch (IllegalArgumentException ex) {
-      throw new SectionValueException(ex.toString());
+      addConstructWarning(constr, ex);
     } catch (InvocationTargetException ex) {
-      throw new SectionValueException(ex.toString());
+      addConstructWarning(constr, ex);
+    }
+    return null;
+  }
+
+  private void addConstructWarning(Constructor<?> constr, Object reason) {
+    if (this.msgs.isWarningsEnabled()) {
+      Object arg = reason instanceof Conversion ? ((Conversion) reason).getFailureDiagnostic() : reason;
+      this.msgs.addWarning(new Diagnostic(Diagnostic.Code.CONSTRUCTOR_FAILED, null, -1, 0, constr, arg));
     }
   }
 
-  private Object[] resolveParams(Class[] paramTypes, String[] paramNames, Map<String, String> values)
-      throws SectionValueException {
+  private void setField(Field field, Object value, Class<?> mainValueType) {
+    Class<?> fieldType = field.getType();
 
-    Object[] result = null;
+    if (value instanceof List && fieldType.isArray() && mainValueType != null) {
+      try {
+        value = toArray((List<?>) value, fieldType.getComponentType());
+      } catch (IllegalArgumentException e) {
+        addError("Field '" + field.getName() + "' (" + fieldType.getName() + ") is not writable: " + e.getMessage());
+        return;
+      }
 
-    if (paramTypes.length == paramNames.length) {
-      result = new Object[paramNames.length];
+    } else if (value instanceof String && !fieldType.isAssignableFrom(String.class)) {
+      Conversion conversion = Conversion.tryConvert(this.converter, (String) value, fieldType);
 
-      for (int i = 0; i < paramNames.length; i++) {
-        result[i] = this.converter.convert(values.get(paramNames[i]), paramTypes[i]);
+      if (!conversion.isSuccess()) {
+        addError("Field '" + field.getName() + "' (" + fieldType.getName() + ") is not writable: conversion of value '"
+            + value + "' failed: " + conversion.getFailure());
+        return;
       }
+      value = conversion.getValue();
     }
 
-    return result;
+    try {
+      field.set(this.bean, value);
+      propertySet(field.getName());
+    } catch (Exception e) {
+      addError("Could not set field " + field + ": " + e.getMessage());
+    }
+  }
+
+  private static Object toArray(List<?> list, Class<?> componentType) {
+    Object array = Array.newInstance(componentType, list.size());
+    for (int i = 0; i < list.size(); i++) {
+      // Also unwraps the values for an array of primitives.
+      Array.set(array, i, list.get(i));
+    }
+    return array;
   }
 
   private void addError(String msg) {
     this.msgs.addError(msg);
   }
+
+  private void propertySet(String property) {
+    if (this.listener != null) {
+      this.listener.propertySet(property);
+    }
+  }
+
+  /**
+   * A value converter that notifies a parse listener about the outcome of each conversion.
+   */
+  private static final class ListeningConverter implements RangeValueConverter {
+
+    private final ValueConverter converter;
+
+    private final ParseListener listener;
+
+    ListeningConverter(ValueConverter converter, ParseListener listener) {
+      this.converter = converter;
+      this.listener = listener;
+    }
+
+    @Override
+    public Object convert(String value, Class<?> targetType) throws SectionValueException {
+      boolean success = false;
+      try {
+        Object result = this.converter.convert(value, targetType);
+        success = true;
+        return result;
+      } finally {
+        this.listener.valueConverted(targetType, success);
+      }
+    }
+
+    @Override
+    public boolean supportsRange(Class<?> targetType) {
+      return this.converter instanceof RangeValueConverter
+          && ((RangeValueConverter) this.converter).supportsRange(targetType);
+    }
+
+    @Override
+    public Object convert(String text, int start, int end, Class<?> targetType) throws SectionValueException {
+      if (!supportsRange(targetType)) {
+        return convert(text.substring(start, end), targetType);
+      }
+
+      boolean success = false;
+      try {
+        Object result = ((RangeValueConverter) this.converter).convert(text, start, end, targetType);
+        success = true;
+        return result;
+      } finally {
+        this.listener.valueConverted(targetType, success);
+      }
+    }
+  }
 }
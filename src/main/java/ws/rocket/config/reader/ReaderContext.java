@@ -19,7 +19,9 @@ package ws.rocket.config.reader;
 import java.io.IOException;
 import java.io.InputStream;
 import ws.rocket.config.ConfigException;
+import ws.rocket.config.Diagnostic;
 import ws.rocket.config.Messages;
+import ws.rocket.config.ParseListener;
 import ws.rocket.config.bean.BeanContext;
 import ws.rocket.config.bean.BeanWriter;
 import ws.rocket.config.section.SectionValueException;
@@ -40,6 +42,8 @@ public final class ReaderContext<T> {
 
   private final Messages msgs;
 
+  private final ParseListener listener;
+
   private String sectionName;
 
   /**
@@ -51,7 +55,59 @@ public final class ReaderContext<T> {
    * @throws ConfigException When there are problems with stream or configuration file syntax/data.
    */
   public ReaderContext(BeanContext<T> beanFactory, boolean emptyConstructor, InputStream input) throws ConfigException {
-    this.msgs = new Messages();
+    this(beanFactory, emptyConstructor, input, new Messages());
+  }
+
+  /**
+   * Creates a new reader context that logs to the given messages container. The error limit and warnings support of the
+   * container determine when parsing stops and whether warnings are composed.
+   * 
+   * @param beanFactory The target bean handler.
+   * @param emptyConstructor A Boolean indicating that the bean must support default constructor.
+   * @param input The stream to parse (fails if null).
+   * @param messages The container for errors and warnings.
+   * @throws ConfigException When there are problems with stream or configuration file syntax/data.
+   */
+  public ReaderContext(BeanContext<T> beanFactory, boolean emptyConstructor, InputStream input, Messages messages)
+      throws ConfigException {
+    this(beanFactory, emptyConstructor, input, messages, null);
+  }
+
+  /**
+   * Creates a new reader context that logs to the given messages container and reports measurements of parsing to the
+   * given listener.
+   * 
+   * @param beanFactory The target bean handler.
+   * @param emptyConstructor A Boolean indicating that the bean must support default constructor.
+   * @param input The stream to parse (fails if null).
+   * @param messages The container for errors and warnings.
+   * @param listener The listener of parse measurements (may be null).
+   * @throws ConfigException When there are problems with stream or configuration file syntax/data.
+   */
+  public ReaderContext(BeanContext<T> beanFactory, boolean emptyConstructor, InputStream input, Messages messages,
+      ParseListener listener) throws ConfigException {
+    this(beanFactory, emptyConstructor, input, messages, listener, 0);
+  }
+
+  /**
+   * Creates a new reader context for a stream that begins after the given amount of lines of a configuration file, so
+   * that the logged messages refer to the lines of the whole file.
+   * 
+   * @param beanFactory The target bean handler.
+   * @param emptyConstructor A Boolean indicating that the bean must support default constructor.
+   * @param input The stream to parse (fails if null).
+   * @param messages The container for errors and warnings.
+   * @param listener The listener of parse measurements (may be null).
+   * @param lineOffset The amount of lines preceding the stream data.
+   * @throws ConfigException When there are problems with stream or configuration file syntax/data.
+   * @see StreamReader#StreamReader(InputStream, int)
+   */
+  public ReaderContext(BeanContext<T> beanFactory, boolean emptyConstructor, InputStream input, Messages messages,
+      ParseListener listener, int lineOffset) throws ConfigException {
+    if (messages == null) {
+      throw new NullPointerException("Given messages is a null reference");
+    }
+    this.msgs = messages;
 
     if (input == null) {
       this.msgs.addError("Configuration input stream is null");
@@ -65,7 +121,9 @@ public final class ReaderContext<T> {
 
     checkErrors();
 
-    this.reader = new StreamReader(input);
+    this.listener = listener;
+    this.beanWriter.setListener(listener);
+    this.reader = new StreamReader(input, lineOffset);
   }
 
   /**
@@ -79,10 +137,22 @@ public final class ReaderContext<T> {
     String name;
     do {
       name = this.reader.readLine();
-    } while (name != null && (name.indexOf('[') < 0 || name.indexOf(']') < 0));
+    } while (name != null && (!StreamReader.isSectionLine(name) || name.indexOf(']') < 0));
     return inSection(name);
   }
 
+  /**
+   * Skips the rest of the current section without interpreting its lines, until a line starting with a square bracket
+   * is reached. After this method completes, the stream can be used to read the contents of the next section.
+   * 
+   * @return Current reader context.
+   * @throws IOException When underlying stream has problems.
+   * @see StreamReader#skipToSectionLine()
+   */
+  public ReaderContext<T> skipSection() throws IOException {
+    return inSection(this.reader.skipToSectionLine());
+  }
+
   /**
    * Provides the section name (<strong>without</strong> square brackets) or null when no section declaration has been
    * read or when end of stream is reached.
@@ -124,7 +194,7 @@ public final class ReaderContext<T> {
    * @return Current reader context.
    */
   public ReaderContext<T> error(String msg) {
-    this.msgs.addError(enrichMsg(msg));
+    this.msgs.addError(diagnostic(msg));
     return this;
   }
 
@@ -135,22 +205,26 @@ public final class ReaderContext<T> {
    * @return Current reader context.
    */
   public ReaderContext<T> warn(String msg) {
-    this.msgs.addWarning(enrichMsg(msg));
+    if (this.msgs.isWarningsEnabled()) {
+      this.msgs.addWarning(diagnostic(msg));
+    }
     return this;
   }
 
   /**
-   * Logs a value conversion exception. This method will also add information about current section and line number to
-   * the message.
+   * Logs a value conversion exception. This method will also add information about current section, line number, and
+   * column (when known) to the message.
    * 
    * @param e The exception to log.
    * @return Current reader context.
    */
   public ReaderContext<T> log(SectionValueException e) {
     if (e.isWarning()) {
-      warn(e.getMessage());
+      if (this.msgs.isWarningsEnabled()) {
+        this.msgs.addWarning(e.toDiagnostic(this.sectionName, this.reader.getLineNumber()));
+      }
     } else {
-      error(e.getMessage());
+      this.msgs.addError(e.toDiagnostic(this.sectionName, this.reader.getLineNumber()));
     }
     return this;
   }
@@ -190,6 +264,34 @@ public final class ReaderContext<T> {
     return this.reader;
   }
 
+  /**
+   * Informs whether parsing should stop because the error limit of the messages container has been reached.
+   * 
+   * @return A Boolean that is true when parsing should stop.
+   * @see Messages#isErrorLimitReached()
+   */
+  public boolean isStopped() {
+    return this.msgs.isErrorLimitReached();
+  }
+
+  /**
+   * Provides access to the messages logged so far.
+   * 
+   * @return The messages object.
+   */
+  public Messages getMessages() {
+    return this.msgs;
+  }
+
+  /**
+   * Provides the listener of parse measurements.
+   * 
+   * @return The parse listener, or <code>null</code> when measurements are not needed.
+   */
+  public ParseListener getListener() {
+    return this.listener;
+  }
+
   /**
    * Provides access to the current target bean writer.
    * 
@@ -199,13 +301,7 @@ public final class ReaderContext<T> {
     return this.beanWriter;
   }
 
-  private String enrichMsg(String msg) {
-    StringBuilder sb = new StringBuilder(msg.length() + 40);
-    sb.append('[');
-    if (this.sectionName != null) {
-      sb.append(this.sectionName);
-    }
-    sb.append(':').append(this.reader.getLineNumber()).append("]: ").append(msg);
-    return sb.toString();
+  private Diagnostic diagnostic(String msg) {
+    return new Diagnostic(Diagnostic.Code.TEXT, this.sectionName, this.reader.getLineNumber(), 0, msg);
   }
 }
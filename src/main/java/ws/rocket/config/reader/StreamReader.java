@@ -42,16 +42,33 @@ public final class StreamReader {
 
   private boolean endOfStream;
 
+  private long bytes;
+
+  private long lineStartByte;
+
   /**
    * Creates a new instance of stream that parses the given input stream. The given stream must not be null.
    *
    * @param input The stream to parse.
    */
   public StreamReader(InputStream input) {
+    this(input, 0);
+  }
+
+  /**
+   * Creates a new instance of stream that parses the given input stream, which begins after the given amount of lines
+   * of a configuration file. The line numbers provided by this reader are then relative to the whole file. The given
+   * stream must not be null.
+   *
+   * @param input The stream to parse.
+   * @param lineOffset The amount of lines preceding the stream data.
+   */
+  public StreamReader(InputStream input, int lineOffset) {
     if (input == null) {
       throw new NullPointerException("Given input stream is a null reference");
     }
     this.input = input;
+    this.line = lineOffset;
   }
 
   /**
@@ -68,10 +85,71 @@ public final class StreamReader {
     }
 
     this.line++;
+    this.lineStartByte = this.bytes;
+    return readLine(read());
+  }
+
+  /**
+   * Skips lines until a line that starts with an opening square bracket (possibly after some whitespace), and returns
+   * that line as {@link #readLine()} would. The skipped lines are not buffered nor interpreted (comments are not
+   * detected), which makes skipping a section fast. When no such line is found, <code>null</code> will be returned.
+   *
+   * @return The line starting with a square bracket or <code>null</code>.
+   * @throws IOException When the underlying stream reports problems.
+   */
+  public String skipToSectionLine() throws IOException {
+    boolean lineStart = true;
+    long lineStartByte = this.bytes;
+
+    while (!this.endOfStream) {
+      int nextChar = read();
+
+      if (nextChar == -1) {
+        this.endOfStream = true;
+      } else if (nextChar == '\n') {
+        this.line++;
+        lineStart = true;
+        lineStartByte = this.bytes;
+      } else if (lineStart && nextChar == '[') {
+        this.line++;
+        this.lineStartByte = lineStartByte;
+        return readLine(nextChar);
+      } else if (!isIndent(nextChar)) {
+        lineStart = false;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Tells whether given line (as returned by {@link #readLine()}) declares a section: the first character after
+   * possible whitespace is an opening square bracket. This is the same test that {@link #skipToSectionLine()} uses,
+   * so square brackets inside property values do not end a section.
+   *
+   * @param line The line to check; may be <code>null</code>.
+   * @return A boolean that is true when the line is a section declaration line.
+   */
+  public static boolean isSectionLine(String line) {
+    if (line != null) {
+      for (int i = 0; i < line.length(); i++) {
+        char c = line.charAt(i);
+        if (!isIndent(c)) {
+          return c == '[';
+        }
+      }
+    }
+    return false;
+  }
 
+  private static boolean isIndent(int c) {
+    return c == ' ' || c == '\t' || c == '\r';
+  }
+
+  private String readLine(int firstChar) throws IOException {
     boolean comment = false;
     boolean escapeCharBefore = false;
-    int nextChar = this.input.read();
+    int nextChar = firstChar;
 
     // Repeat reading a line until the end of line or end of file.
     // Comments will be skipped.
@@ -102,7 +180,7 @@ public final class StreamReader {
       }
 
       escapeCharBefore = nextChar == '\\';
-      nextChar = this.input.read();
+      nextChar = read();
     }
 
     this.endOfStream = nextChar == -1;
@@ -116,6 +194,14 @@ public final class StreamReader {
     return result;
   }
 
+  private int read() throws IOException {
+    int nextChar = this.input.read();
+    if (nextChar != -1) {
+      this.bytes++;
+    }
+    return nextChar;
+  }
+
   /**
    * Provides the line number of the last returned line. When nothing is read yet, zero is returned. In case of empty
    * file, the line number after reading is one.
@@ -126,6 +212,24 @@ public final class StreamReader {
     return this.line;
   }
 
+  /**
+   * Provides the amount of bytes read from the underlying stream so far.
+   *
+   * @return The amount of bytes read.
+   */
+  public long getByteCount() {
+    return this.bytes;
+  }
+
+  /**
+   * Provides the position (in bytes) of the stream where the last returned line started.
+   *
+   * @return The byte position of the last returned line.
+   */
+  public long getLineStartByte() {
+    return this.lineStartByte;
+  }
+
   /**
    * Reports whether the underlying stream is known to be consumed or not. This method does not have any effect on the
    * stream.
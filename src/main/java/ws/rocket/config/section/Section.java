@@ -17,7 +17,9 @@
 package ws.rocket.config.section;
 
 import java.io.IOException;
+import ws.rocket.config.ParseListener;
 import ws.rocket.config.bean.BeanValidator;
+import ws.rocket.config.bean.BeanWriter;
 import ws.rocket.config.reader.ReaderContext;
 import ws.rocket.config.reader.StreamReader;
 import ws.rocket.config.reader.StreamWriter;
@@ -34,7 +36,7 @@ public final class Section {
 
   private final String name;
 
-  private final SectionReader reader;
+  private final SectionReader<?> reader;
 
   private final SectionWriter writer;
 
@@ -45,7 +47,7 @@ public final class Section {
    * @param reader An object taking care of reading section lines.
    * @param writer An object for writing the read data to target bean.
    */
-  public Section(String name, SectionReader reader, SectionWriter writer) {
+  public Section(String name, SectionReader<?> reader, SectionWriter writer) {
     this.name = name;
     this.reader = reader;
     this.writer = writer;
@@ -65,7 +67,7 @@ public final class Section {
    *
    * @return The section reader.
    */
-  public SectionReader getReader() {
+  public SectionReader<?> getReader() {
     return this.reader;
   }
 
@@ -110,27 +112,84 @@ public final class Section {
    * @throws IOException An exception from the underlying stream.
    */
   public void parse(ReaderContext<?> context) throws IOException {
+    String sectionName = context.inSection();
+    Object data = read(context);
+    if (!context.isStopped()) {
+      ParseListener listener = context.getListener();
+      if (listener != null) {
+        listener.sectionWriteStarted(sectionName);
+      }
+      long start = listener != null ? System.nanoTime() : 0;
+
+      write(context.getBeanWriter(), data);
+
+      if (listener != null) {
+        listener.sectionWritten(sectionName, System.nanoTime() - start);
+      }
+    }
+  }
+
+  /**
+   * Reads a configuration section until next section, end of file, or until the context is stopped (due to errors), but
+   * does not write the read data to target bean. This enables writing the data later, possibly by another thread.
+   *
+   * @param context The parsing context.
+   * @return The collection of read section data.
+   * @throws IOException An exception from the underlying stream.
+   * @see #write(BeanWriter, Object)
+   */
+  public Object read(ReaderContext<?> context) throws IOException {
+    return read(context, this.reader);
+  }
+
+  /**
+   * Writes the section data (previously read by this section) to target bean.
+   *
+   * @param beanWriter The writer of the target bean.
+   * @param data The collection of read section data.
+   * @see #read(ReaderContext)
+   */
+  public void write(BeanWriter<?> beanWriter, Object data) {
+    this.writer.write(beanWriter, data, this.reader.getValueType());
+  }
+
+  private <C> C read(ReaderContext<?> context, SectionReader<C> sectionReader) throws IOException {
     StreamReader stream = context.getStreamReader();
+    C result = sectionReader.createResult();
     String line = null;
 
-    while (!stream.isEndOfStream()) {
+    ParseListener listener = context.getListener();
+    String sectionName = context.inSection();
+    if (listener != null) {
+      listener.sectionReadStarted(sectionName);
+    }
+    long start = listener != null ? System.nanoTime() : 0;
+    int startLine = stream.getLineNumber();
+    long startByte = stream.getByteCount();
+
+    while (!stream.isEndOfStream() && !context.isStopped()) {
       line = stream.readLine();
 
-      if (line == null || line.indexOf('[') >= 0) {
+      if (line == null || StreamReader.isSectionLine(line)) {
         break;
       }
 
       try {
-        this.reader.readLine(line, context.getBeanWriter().getConverter());
+        sectionReader.readLine(line, result, context.getBeanWriter().getConverter());
       } catch (SectionValueException e) {
         context.log(e);
       }
     }
 
-    this.writer.write(context.getBeanWriter(), this.reader.getResult(), this.reader.getValueType());
-    this.reader.reset();
+    if (listener != null) {
+      boolean header = StreamReader.isSectionLine(line);
+      int lines = stream.getLineNumber() - startLine - (header || line == null ? 1 : 0);
+      long bytes = (header ? stream.getLineStartByte() : stream.getByteCount()) - startByte;
+      listener.sectionRead(sectionName, lines, bytes, System.nanoTime() - start);
+    }
 
-    context.inSection(line);
+    context.inSection(context.isStopped() ? null : line);
+    return result;
   }
 
 }
@@ -16,8 +16,13 @@
 
 package ws.rocket.config.section;
 
+import ws.rocket.config.Diagnostic;
+
 /**
  * Exception for bad section values.
+ * <p>
+ * As this exception describes a problem with configuration data (not with the program), and it is raised for every bad
+ * value, it does not record the stack trace. That keeps reporting many bad values cheap.
  *
  * @author Martti Tamm
  */
@@ -25,9 +30,15 @@ public final class SectionValueException extends Exception {
 
   private final boolean warning;
 
+  private final Diagnostic.Code code;
+
+  private final Object[] args;
+
+  private int column;
+
   /**
    * Creates a new exception with given error message.
-   * 
+   *
    * @param msg Error message (required).
    */
   public SectionValueException(String msg) {
@@ -36,23 +47,122 @@ public final class SectionValueException extends Exception {
 
   /**
    * Creates a new exception with given error/warning message.
-   * 
+   *
    * @param msg Error message (required).
    * @param warning A boolean, when true, the message is to considered a non-fatal error (warning), otherwise the
    *                message indicates a fatal error that might block further actions on a section.
    */
   public SectionValueException(String msg, boolean warning) {
+    this(msg, warning, 0);
+  }
+
+  /**
+   * Creates a new exception with given error/warning message and the column where the problem was detected.
+   *
+   * @param msg Error message (required).
+   * @param warning A boolean, when true, the message is to considered a non-fatal error (warning), otherwise the
+   *                message indicates a fatal error that might block further actions on a section.
+   * @param column The column (starting from 1) of the parsed value where the problem was detected; 0 when unknown.
+   */
+  public SectionValueException(String msg, boolean warning, int column) {
     super(msg);
     this.warning = warning;
+    this.column = column;
+    this.code = Diagnostic.Code.TEXT;
+    this.args = new Object[] { msg };
+  }
+
+  /**
+   * Creates a new exception with a diagnostic code and message arguments. The message is formatted only when requested.
+   *
+   * @param code The diagnostic code (required).
+   * @param warning A boolean, when true, the message is to considered a non-fatal error (warning), otherwise the
+   *                message indicates a fatal error that might block further actions on a section.
+   * @param args The arguments for the message pattern of the code.
+   */
+  public SectionValueException(Diagnostic.Code code, boolean warning, Object... args) {
+    this(code, warning, 0, args);
+  }
+
+  /**
+   * Creates a new exception with a diagnostic code, message arguments, and the column where the problem was detected.
+   * The message is formatted only when requested.
+   *
+   * @param code The diagnostic code (required).
+   * @param warning A boolean, when true, the message is to considered a non-fatal error (warning), otherwise the
+   *                message indicates a fatal error that might block further actions on a section.
+   * @param column The column (starting from 1) of the parsed value where the problem was detected; 0 when unknown.
+   * @param args The arguments for the message pattern of the code.
+   */
+  public SectionValueException(Diagnostic.Code code, boolean warning, int column, Object[] args) {
+    this.warning = warning;
+    this.code = code;
+    this.column = column;
+    this.args = args;
+  }
+
+  /**
+   * Provides the formatted message of this exception.
+   *
+   * @return The message.
+   */
+  @Override
+  public String getMessage() {
+    return this.code.format(this.args);
+  }
+
+  /**
+   * Converts this exception into a diagnostic record at the given location.
+   *
+   * @param section The name of the section where the problem was detected, or null.
+   * @param line The line number where the problem was detected; negative when the location is unknown.
+   * @return A new diagnostic.
+   */
+  public Diagnostic toDiagnostic(String section, int line) {
+    return new Diagnostic(this.code, section, line, this.column, this.args);
   }
 
   /**
    * Reports whether this exception is fatal (error) or non-fatal (warning).
-   * 
+   *
    * @return A Boolean that is true for warnings.
    */
   public boolean isWarning() {
     return this.warning;
   }
 
+  /**
+   * Provides the column (starting from 1) where the problem was detected. A converter reports the column within the
+   * converted value, which section readers shift to the column within the line (see {@link #shiftColumn(int)}).
+   *
+   * @return The column of the problem, or 0 when unknown.
+   */
+  public int getColumn() {
+    return this.column;
+  }
+
+  /**
+   * Does not fill in the stack trace, as it is not needed for describing a bad value.
+   *
+   * @return This exception.
+   */
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+
+  /**
+   * Shifts the known column by given amount of characters. This is used when the value, which the column refers to,
+   * starts at given offset of the line. When the column is unknown, it remains unknown.
+   *
+   * @param offset The amount of characters preceding the value.
+   * @return This exception.
+   */
+  public SectionValueException shiftColumn(int offset) {
+    if (this.column > 0) {
+      this.column += offset;
+    }
+    return this;
+  }
+
 }
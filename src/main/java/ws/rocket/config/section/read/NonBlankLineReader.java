@@ -22,16 +22,21 @@ import ws.rocket.config.section.value.ValueConverter;
 /**
  * Section reader abstraction that skips blank lines and removes surrounding whitespace from line data.
  *
+ * @param <C> The type of the result collection.
  * @author Martti Tamm
  */
-public abstract class NonBlankLineReader implements SectionReader {
+public abstract class NonBlankLineReader<C> implements SectionReader<C> {
 
   @Override
-  public final void readLine(String line, ValueConverter converter) throws SectionValueException {
+  public final void readLine(String line, C result, ValueConverter converter) throws SectionValueException {
     String value = line.trim();
 
     if (value.length() > 0) {
-      readNonBlankLine(value, converter);
+      try {
+        readNonBlankLine(value, result, converter);
+      } catch (SectionValueException e) {
+        throw e.shiftColumn(line.indexOf(value.charAt(0)));
+      }
     }
   }
 
@@ -39,9 +44,12 @@ public abstract class NonBlankLineReader implements SectionReader {
    * Reads a new non-blank line of section data.
    * 
    * @param line A section data line (with comments and surrounding whitespace removed).
+   * @param result The collection (created by this reader) where to store the read data.
    * @param converter A value converter to convert data to target type.
-   * @throws SectionValueException When the line data is not some how correct for this reader.
+   * @throws SectionValueException When the line data is not some how correct for this reader. The column of the
+   * exception, when known, must be relative to the given line.
    */
-  protected abstract void readNonBlankLine(String line, ValueConverter converter) throws SectionValueException;
+  protected abstract void readNonBlankLine(String line, C result, ValueConverter converter)
+      throws SectionValueException;
 
 }
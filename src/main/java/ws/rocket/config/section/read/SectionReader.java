@@ -21,32 +21,33 @@ import ws.rocket.config.section.value.ValueConverter;
 
 /**
  * Section reader interprets the content of a section line-by-line.
+ * <p>
+ * A section reader does not keep the data it reads: each time a section is parsed, a new result collection is created
+ * by the reader and then passed to it along with every line. Therefore, the same reader (and configuration model) can
+ * be used by several threads at the same time.
  *
+ * @param <C> The type of the result collection.
  * @author Martti Tamm
  */
-public interface SectionReader {
+public interface SectionReader<C> {
 
   /**
-   * Resets the inner state so that the reader could be reused. The collection data object should be recreated, as it
-   * might alter the target configuration bean state.
+   * Creates a new empty collection for the data of a section that is about to be parsed. The collection is later given
+   * to the section writer, therefore it must not be reused.
+   *
+   * @return A new collection.
    */
-  void reset();
+  C createResult();
 
   /**
    * Reads a new line of section data.
    * 
    * @param line A section data line (with comments removed).
+   * @param result The collection (created by this reader) where to store the read data.
    * @param converter A value converter to convert data to target type.
    * @throws SectionValueException When the line data is not some how correct for this reader.
    */
-  void readLine(String line, ValueConverter converter) throws SectionValueException;
-
-  /**
-   * To be called after section data has been read: provides a collection of parsed data.
-   * 
-   * @return A collection.
-   */
-  Object getResult();
+  void readLine(String line, C result, ValueConverter converter) throws SectionValueException;
 
   /**
    * Provides the class name of the returned result collection. For example, <code>java.util.List.class</code>. This
@@ -18,6 +18,7 @@ package ws.rocket.config.section.read;
 
 import java.util.ArrayList;
 import java.util.List;
+import ws.rocket.config.Diagnostic;
 import ws.rocket.config.section.SectionValueException;
 import ws.rocket.config.section.value.ValueConverter;
 
@@ -27,9 +28,7 @@ import ws.rocket.config.section.value.ValueConverter;
  * 
  * @author Martti Tamm
  */
-public final class ValueListSection extends NonBlankLineReader {
-
-  private List<Object> rows = new ArrayList<Object>();
+public final class ValueListSection extends NonBlankLineReader<List<Object>> {
 
   private final Class<?> valueType;
 
@@ -50,26 +49,21 @@ public final class ValueListSection extends NonBlankLineReader {
   }
 
   @Override
-  public void reset() {
-    this.rows = new ArrayList<Object>();
+  public List<Object> createResult() {
+    return new ArrayList<Object>();
   }
 
   @Override
-  protected void readNonBlankLine(String line, ValueConverter converter) throws SectionValueException {
+  protected void readNonBlankLine(String line, List<Object> rows, ValueConverter converter)
+      throws SectionValueException {
     Object value = converter.convert(line, this.valueType);
-    if (!this.rows.contains(value)) {
-      this.rows.add(value);
+    if (!rows.contains(value)) {
+      rows.add(value);
     } else {
-      throw new SectionValueException("Value '" + line
-          + " is specified more than once, but it was added only once", true);
+      throw new SectionValueException(Diagnostic.Code.DUPLICATE_VALUE, true, line);
     }
   }
 
-  @Override
-  public List<Object> getResult() {
-    return this.rows;
-  }
-
   @Override
   public Class<?> getValueType() {
     return this.valueType;
@@ -18,7 +18,9 @@ package ws.rocket.config.section.read;
 
 import java.util.HashMap;
 import java.util.Map;
+import ws.rocket.config.Diagnostic;
 import ws.rocket.config.section.SectionValueException;
+import ws.rocket.config.section.value.RangeValueConverter;
 import ws.rocket.config.section.value.ValueConverter;
 
 /**
@@ -28,9 +30,7 @@ import ws.rocket.config.section.value.ValueConverter;
  *
  * @author Martti Tamm
  */
-public final class ValueMapSection extends NonBlankLineReader {
-
-  private Map<Object, Object> props = new HashMap<Object, Object>();
+public final class ValueMapSection extends NonBlankLineReader<Map<Object, Object>> {
 
   private final Class<?> keyType;
 
@@ -55,12 +55,13 @@ public final class ValueMapSection extends NonBlankLineReader {
   }
 
   @Override
-  public void reset() {
-    this.props = new HashMap<Object, Object>();
+  public Map<Object, Object> createResult() {
+    return new HashMap<Object, Object>();
   }
 
   @Override
-  protected void readNonBlankLine(String line, ValueConverter converter) throws SectionValueException {
+  protected void readNonBlankLine(String line, Map<Object, Object> props, ValueConverter converter)
+      throws SectionValueException {
     int splitAt = line.indexOf('=');
     boolean valid = false;
 
@@ -69,17 +70,16 @@ public final class ValueMapSection extends NonBlankLineReader {
 
       if (key != null) {
         valid = true;
-        if (!this.props.containsKey(key)) {
-          this.props.put(key, readValue(line, splitAt, converter));
+        if (!props.containsKey(key)) {
+          props.put(key, readValue(line, splitAt, converter));
         } else {
-          throw new SectionValueException("Property '" + key
-              + " is specified more than once, but only first value was registered", true);
+          throw new SectionValueException(Diagnostic.Code.DUPLICATE_PROPERTY, true, key);
         }
       }
     }
 
     if (!valid) {
-      throw new SectionValueException("Bad property line format: '" + line + "' (should be: key = value)");
+      throw new SectionValueException(Diagnostic.Code.BAD_PROPERTY_LINE, false, line);
     }
   }
 
@@ -89,13 +89,24 @@ public final class ValueMapSection extends NonBlankLineReader {
   }
 
   private Object readValue(String line, int afterPos, ValueConverter converter) throws SectionValueException {
-    String value = line.substring(afterPos + 1).trim();
-    return value.length() == 0 ? null : converter.convert(value, this.valueType);
-  }
+    int start = afterPos + 1;
+    while (start < line.length() && line.charAt(start) <= ' ') {
+      start++;
+    }
 
-  @Override
-  public Map<Object, Object> getResult() {
-    return this.props;
+    if (start == line.length()) {
+      return null;
+    }
+
+    try {
+      // The line is already trimmed, so the value has no trailing whitespace.
+      if (converter instanceof RangeValueConverter && ((RangeValueConverter) converter).supportsRange(this.valueType)) {
+        return ((RangeValueConverter) converter).convert(line, start, line.length(), this.valueType);
+      }
+      return converter.convert(line.substring(start), this.valueType);
+    } catch (SectionValueException e) {
+      throw e.shiftColumn(start);
+    }
   }
 
   @Override
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config.section.value;
+
+import ws.rocket.config.Diagnostic;
+import ws.rocket.config.section.SectionValueException;
+
+/**
+ * The outcome of a value conversion: either the converted value or the reason why the conversion failed. This enables
+ * trying out conversions (e.g. for finding a suitable setter or constructor) without handling exceptions.
+ * <p>
+ * The failure reason keeps the diagnostic code and message arguments of the converter, and the message is formatted
+ * only when requested. Therefore, trying out many conversions that fail is cheap when the reasons are not reported.
+ *
+ * @author Martti Tamm
+ * @see #tryConvert(ValueConverter, String, Class)
+ */
+public final class Conversion {
+
+  /**
+   * Converts given value to target type using given converter, and returns the outcome of the conversion. A failure of
+   * the converter is returned as a failed conversion, not thrown.
+   *
+   * @param converter The converter to use (required).
+   * @param value The source value.
+   * @param targetType The target type as class (required).
+   * @return The outcome of the conversion.
+   * @see ValueConverter#convert(String, Class)
+   */
+  public static Conversion tryConvert(ValueConverter converter, String value, Class<?> targetType) {
+    try {
+      return success(converter.convert(value, targetType));
+    } catch (SectionValueException e) {
+      return new Conversion(null, e);
+    }
+  }
+
+  /**
+   * Creates a successful conversion outcome.
+   *
+   * @param value The converted value (may be null).
+   * @return The conversion outcome.
+   */
+  public static Conversion success(Object value) {
+    return new Conversion(value, null);
+  }
+
+  /**
+   * Creates a failed conversion outcome.
+   *
+   * @param reason The reason of the failure (required).
+   * @param column The column (starting from 1) of the value where the problem was detected; 0 when unknown.
+   * @return The conversion outcome.
+   */
+  public static Conversion failure(String reason, int column) {
+    if (reason == null) {
+      throw new NullPointerException("Given failure reason is a null reference");
+    }
+    return new Conversion(null, new SectionValueException(reason, false, column));
+  }
+
+  private final Object value;
+
+  private final SectionValueException failure;
+
+  private Conversion(Object value, SectionValueException failure) {
+    this.value = value;
+    this.failure = failure;
+  }
+
+  /**
+   * Reports whether the conversion succeeded.
+   *
+   * @return A Boolean that is true when the conversion succeeded.
+   */
+  public boolean isSuccess() {
+    return this.failure == null;
+  }
+
+  /**
+   * Provides the converted value.
+   *
+   * @return The converted value, or null when the conversion failed.
+   */
+  public Object getValue() {
+    return this.value;
+  }
+
+  /**
+   * Provides the reason of conversion failure. The message is formatted on each call.
+   *
+   * @return The failure reason, or null when the conversion succeeded.
+   */
+  public String getFailure() {
+    return this.failure != null ? this.failure.getMessage() : null;
+  }
+
+  /**
+   * Provides the reason of conversion failure as a diagnostic without location. The message of the diagnostic is
+   * formatted only when requested (e.g. when the diagnostic is used as an argument of another diagnostic and that one
+   * is formatted).
+   *
+   * @return The failure diagnostic, or null when the conversion succeeded.
+   */
+  public Diagnostic getFailureDiagnostic() {
+    return this.failure != null ? this.failure.toDiagnostic(null, -1) : null;
+  }
+
+  /**
+   * Provides the column where the conversion problem was detected.
+   *
+   * @return The column (starting from 1) of the problem, or 0 when unknown or when the conversion succeeded.
+   */
+  public int getColumn() {
+    return this.failure != null ? this.failure.getColumn() : 0;
+  }
+
+  /**
+   * Provides the converted value, or throws the failure as an exception. The exception is the one raised by the
+   * converter.
+   *
+   * @return The converted value.
+   * @throws SectionValueException When the conversion failed.
+   */
+  public Object get() throws SectionValueException {
+    if (this.failure != null) {
+      throw this.failure;
+    }
+    return this.value;
+  }
+
+  @Override
+  public String toString() {
+    return isSuccess() ? "Conversion[" + this.value + "]" : "Conversion failed: " + getFailure();
+  }
+
+}
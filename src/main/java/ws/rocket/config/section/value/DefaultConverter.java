@@ -18,12 +18,24 @@ package ws.rocket.config.section.value;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.net.MalformedURLException;
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import ws.rocket.config.section.SectionValueException;
 
 /**
@@ -36,15 +48,15 @@ import ws.rocket.config.section.SectionValueException;
  *   </tr>
  *   <tr>
  *     <td><code>long<br>java.lang.Long</code></td>
- *     <td><code>Long.valueOf(<em>source</em>)</code></td>
+ *     <td><code>NumberParser.parseLong(<em>source</em>)</code></td>
  *   </tr>
  *   <tr>
  *     <td><code>int<br>java.lang.Integer</code></td>
- *     <td><code>Integer.valueOf(<em>source</em>)</code></td>
+ *     <td><code>NumberParser.parseInt(<em>source</em>)</code></td>
  *   </tr>
  *   <tr>
  *     <td><code>short<br>java.lang.Short</code></td>
- *     <td><code>Short.valueOf(<em>source</em>)</code></td>
+ *     <td><code>NumberParser.parseShort(<em>source</em>)</code></td>
  *   </tr>
  *   <tr>
  *     <td><code>double<br>java.lang.Double</code></td>
@@ -60,7 +72,7 @@ import ws.rocket.config.section.SectionValueException;
  *   </tr>
  *   <tr>
  *     <td><code>byte<br>java.lang.Byte</code></td>
- *     <td><code>Byte.valueOf(<em>source</em>)</code></td>
+ *     <td><code>NumberParser.parseByte(<em>source</em>)</code></td>
  *   </tr>
  *   <tr>
  *     <td><code>boolean<br>java.lang.Boolean</code></td>
@@ -76,7 +88,7 @@ import ws.rocket.config.section.SectionValueException;
  *   </tr>
  *   <tr>
  *     <td><code>java.net.URI</code></td>
- *     <td><code>URI.create(<em>source</em>)</code></td>
+ *     <td><code>new URI(<em>source</em>)</code></td>
  *   </tr>
  *   <tr>
  *     <td><code>java.net.URL</code></td>
@@ -100,99 +112,485 @@ import ws.rocket.config.section.SectionValueException;
  *     </td>
  *   </tr>
  *   <tr>
+ *     <td><code>java.time.Instant<br>java.time.LocalDate<br>java.time.LocalDateTime<br>java.time.Duration</code></td>
+ *     <td><code><em>Type</em>.parse(<em>source</em>)</code> (ISO-8601; only when running on Java 8 or newer)</td>
+ *   </tr>
+ *   <tr>
  *     <td><em>any other type</em></td>
  *     <td>an instance returned by calling the default constructor of <code>Class.forName(<em>source</em>)</code></td>
  *   </tr>
  * </table>
+ * <p>
+ * The conversion is looked up by the exact target type, so each value is converted without testing the target type
+ * against all the supported types. Enumerations and class names are handled when no conversion is registered for the
+ * target type. Custom conversions can be added (or built-in ones replaced) using
+ * {@link #register(Class, ValueConverter)}.
+ * <p>
+ * An enumeration constant is looked up by its <code>toString()</code> value. The lookup table is built once per
+ * enumeration type. Matching may also ignore case (see {@link #ignoreEnumCase()}), though exact match is preferred.
+ * <p>
+ * Class names are resolved using the class loader given to the constructor (by default, the class loader of this
+ * library). Each class name is resolved only once, and the default constructor of a class is also looked up once.
+ * <p>
+ * This converter is thread-safe once all custom conversions have been registered: the date formats are kept per thread,
+ * and the <code>java.time</code> types are parsed with their immutable ISO formatters.
  *
  * @author Martti Tamm
  */
-public final class DefaultConverter implements ValueConverter {
+public final class DefaultConverter implements RangeValueConverter {
+
+  private static final String PATTERN_DATE_TIME = "yyyy-MM-dd'T'hh:mm:ss";
+
+  private static final String PATTERN_DATE = "yyyy-MM-dd";
+
+  private static final String PATTERN_TIME = "'T'hh:mm:ss";
+
+  // Plain thread-locals (not subclasses) holding only JDK classes, so that pooled threads do not retain the class
+  // loader of this library.
+  private static final ThreadLocal<DateFormat> FMT_DATE_TIME = new ThreadLocal<DateFormat>();
+
+  private static final ThreadLocal<DateFormat> FMT_DATE = new ThreadLocal<DateFormat>();
+
+  private static final ThreadLocal<DateFormat> FMT_TIME = new ThreadLocal<DateFormat>();
+
+  private static final String[] PARSED_TYPES = {
+    "java.time.Instant", "java.time.LocalDate", "java.time.LocalDateTime", "java.time.Duration"
+  };
+
+  private static final Map<Class<?>, ValueConverter> PARSE_CONVERTERS = findParseConverters();
+
+  private final Map<Class<?>, ValueConverter> converters = new IdentityHashMap<Class<?>, ValueConverter>(64);
+
+  private final ConcurrentMap<Class<?>, EnumConverter> enums = new ConcurrentHashMap<Class<?>, EnumConverter>();
+
+  private final ConcurrentMap<String, Class<?>> classes = new ConcurrentHashMap<String, Class<?>>();
+
+  private final ConcurrentMap<Class<?>, Constructor<?>> factories = new ConcurrentHashMap<Class<?>, Constructor<?>>();
+
+  private final ClassLoader classLoader;
+
+  private boolean enumIgnoreCase;
+
+  /**
+   * Creates a new converter with the built-in conversions (see the table in class description). Class names will be
+   * resolved using the class loader of this library.
+   */
+  public DefaultConverter() {
+    this(DefaultConverter.class.getClassLoader());
+  }
+
+  /**
+   * Creates a new converter with the built-in conversions (see the table in class description). Class names will be
+   * resolved using the given class loader.
+   *
+   * @param classLoader The class loader for resolving class names (required).
+   */
+  public DefaultConverter(ClassLoader classLoader) {
+    if (classLoader == null) {
+      throw new NullPointerException("Given class loader is a null reference");
+    }
+    this.classLoader = classLoader;
+
+    for (BuiltIn converter : BuiltIn.values()) {
+      for (Class<?> type : converter.types) {
+        this.converters.put(type, converter);
+      }
+    }
+
+    this.converters.putAll(PARSE_CONVERTERS);
+  }
+
+  /**
+   * Registers a converter for given target type. The registered converter replaces the built-in conversion of this
+   * type, and it is looked up only by exact target type match. Registering must be done before the converter is used
+   * by a configuration model.
+   *
+   * @param targetType The target type as class (required).
+   * @param converter The converter to use for the target type (required).
+   * @return This converter.
+   */
+  public DefaultConverter register(Class<?> targetType, ValueConverter converter) {
+    if (targetType == null) {
+      throw new NullPointerException("Given target type is a null reference");
+    } else if (converter == null) {
+      throw new NullPointerException("Given value converter is a null reference");
+    }
+    this.converters.put(targetType, converter);
+    return this;
+  }
+
+  /**
+   * Makes enumeration constant lookup case-insensitive. When a value matches a constant exactly, that constant is
+   * still preferred. This must be set before the converter is used by a configuration model.
+   *
+   * @return This converter.
+   */
+  public DefaultConverter ignoreEnumCase() {
+    this.enumIgnoreCase = true;
+    this.enums.clear();
+    return this;
+  }
+
+  /**
+   * Informs whether the given target type is converted by a built-in conversion, which has not been replaced by a
+   * registered conversion. Section readers may use this to convert such values directly from line data.
+   *
+   * @param targetType The target type as class.
+   * @return A Boolean that is true when the built-in conversion of the type is in use.
+   */
+  public boolean isBuiltIn(Class<?> targetType) {
+    return this.converters.get(targetType) instanceof BuiltIn;
+  }
+
+  /**
+   * Informs whether the given target type is an integer type (<code>long</code>, <code>int</code>, <code>short</code>,
+   * <code>byte</code>, or their wrappers) with its built-in conversion in use. Such values are parsed in place by
+   * {@link #convert(String, int, int, Class)}.
+   * <p>
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean supportsRange(Class<?> targetType) {
+    Object converter = this.converters.get(targetType);
+    return converter == BuiltIn.LONG || converter == BuiltIn.INTEGER || converter == BuiltIn.SHORT
+        || converter == BuiltIn.BYTE;
+  }
 
-  private final SimpleDateFormat fmtDateTime = new SimpleDateFormat("yyyy-MM-dd'T'hh:mm:ss");
+  @Override
+  public Object convert(String text, int start, int end, Class<?> targetType) throws SectionValueException {
+    Object converter = this.converters.get(targetType);
+    Object result;
 
-  private final SimpleDateFormat fmtDate = new SimpleDateFormat("yyyy-MM-dd");
+    if (converter == BuiltIn.LONG) {
+      result = Long.valueOf(NumberParser.parseLong(text, start, end, Long.MIN_VALUE, Long.MAX_VALUE));
+    } else if (converter == BuiltIn.INTEGER) {
+      result = Integer.valueOf((int) NumberParser.parseLong(text, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE));
+    } else if (converter == BuiltIn.SHORT) {
+      result = Short.valueOf((short) NumberParser.parseLong(text, start, end, Short.MIN_VALUE, Short.MAX_VALUE));
+    } else if (converter == BuiltIn.BYTE) {
+      result = Byte.valueOf((byte) NumberParser.parseLong(text, start, end, Byte.MIN_VALUE, Byte.MAX_VALUE));
+    } else {
+      result = convert(text.substring(start, end), targetType);
+    }
 
-  private final SimpleDateFormat fmtTime = new SimpleDateFormat("'T'hh:mm:ss");
+    return result;
+  }
 
   @Override
   public Object convert(String value, Class<?> targetType) throws SectionValueException {
-    if (value == null || targetType == String.class) {
+    if (value == null) {
       return value;
-    } else if (targetType == Long.class || targetType == long.class) {
-      return Long.valueOf(value);
-    } else if (targetType == Integer.class || targetType == int.class) {
-      return Integer.valueOf(value);
-    } else if (targetType == Short.class || targetType == short.class) {
-      return Short.valueOf(value);
-    } else if (targetType == Double.class || targetType == double.class) {
-      return Double.valueOf(value);
-    } else if (targetType == Float.class || targetType == float.class) {
-      return Float.valueOf(value);
-    } else if (targetType == Character.class || targetType == char.class) {
-      return Character.valueOf(value.length() > 0 ? value.charAt(0) : '\0');
-    } else if (targetType == Byte.class || targetType == byte.class) {
-      return Byte.valueOf(value);
-    } else if (targetType == Boolean.class || targetType == boolean.class) {
-      return Boolean.valueOf(value);
-    } else if (targetType == BigDecimal.class) {
-      return new BigDecimal(value);
-    } else if (targetType == BigInteger.class) {
-      return new BigInteger(value);
-    } else if (targetType == URI.class) {
-      return URI.create(value);
+    }
+
+    ValueConverter converter = this.converters.get(targetType);
+    if (converter != null) {
+      return converter.convert(value, targetType);
     } else if (targetType.isEnum()) {
-      Object result = null;
-      for (Object enumVal : targetType.getEnumConstants()) {
-        if (value.equals(enumVal.toString())) {
-          result = enumVal;
+      return getEnumConverter(targetType).convert(value, targetType);
+    }
+
+    return convertClass(value, targetType);
+  }
+
+  private EnumConverter getEnumConverter(Class<?> enumType) {
+    EnumConverter result = this.enums.get(enumType);
+    if (result == null) {
+      result = new EnumConverter(enumType, this.enumIgnoreCase);
+      this.enums.putIfAbsent(enumType, result);
+    }
+    return result;
+  }
+
+  private Object convertClass(String value, Class<?> targetType) throws SectionValueException {
+    Class<?> type = resolveClass(value);
+
+    if (targetType == Class.class) {
+      return type;
+    } else if (!targetType.isAssignableFrom(type)) {
+      throw new SectionValueException(type + "' cannot be assigned to required type: " + targetType);
+    }
+
+    try {
+      Constructor<?> factory = this.factories.get(type);
+      if (factory == null) {
+        factory = type.getConstructor();
+        this.factories.putIfAbsent(type, factory);
+      }
+      return factory.newInstance();
+    } catch (NoSuchMethodException e) {
+      throw new SectionValueException("Cannot instantiate class '" + value + "' using default constructor: " + e);
+    } catch (InstantiationException e) {
+      throw new SectionValueException("Cannot instantiate class '" + value + "' using default constructor: " + e);
+    } catch (IllegalAccessException e) {
+      throw new SectionValueException("Cannot instantiate class '" + value + "' using default constructor: " + e);
+    } catch (InvocationTargetException e) {
+      throw new SectionValueException("Cannot instantiate class '" + value + "' using default constructor: "
+          + e.getCause());
+    }
+  }
+
+  private Class<?> resolveClass(String name) throws SectionValueException {
+    Class<?> result = this.classes.get(name);
+
+    if (result == null) {
+      try {
+        result = Class.forName(name, true, this.classLoader);
+      } catch (ClassNotFoundException e) {
+        throw new SectionValueException("Cannot find and load class '" + name + "'");
+      }
+      this.classes.putIfAbsent(name, result);
+    }
+
+    return result;
+  }
+
+  private static Map<Class<?>, ValueConverter> findParseConverters() {
+    Map<Class<?>, ValueConverter> result = new IdentityHashMap<Class<?>, ValueConverter>();
+
+    for (String typeName : PARSED_TYPES) {
+      try {
+        Class<?> type = Class.forName(typeName);
+        Method method = type.getMethod("parse", CharSequence.class);
+
+        if (Modifier.isStatic(method.getModifiers()) && type == method.getReturnType()) {
+          result.put(type, new ParseMethodConverter(method));
         }
+      } catch (ClassNotFoundException e) {
+        continue; // Not supported by the current Java runtime.
+      } catch (NoSuchMethodException e) {
+        continue;
       }
+    }
+
+    return result;
+  }
+
+  /**
+   * Provides the date format of the current thread, as date formats are not thread-safe.
+   */
+  private static DateFormat dateFormat(ThreadLocal<DateFormat> holder, String pattern) {
+    DateFormat format = holder.get();
+    if (format == null) {
+      format = new SimpleDateFormat(pattern);
+      holder.set(format);
+    }
+    return format;
+  }
+
+  /**
+   * Looks up enumeration constants by their <code>toString()</code> value. When several constants have the same value,
+   * the last one is used.
+   */
+  private static final class EnumConverter implements ValueConverter {
+
+    private final Map<String, Object> constants = new HashMap<String, Object>();
+
+    private final Map<String, Object> upperCaseConstants;
+
+    private EnumConverter(Class<?> enumType, boolean ignoreCase) {
+      this.upperCaseConstants = ignoreCase ? new HashMap<String, Object>() : null;
+
+      for (Object constant : enumType.getEnumConstants()) {
+        this.constants.put(constant.toString(), constant);
+        if (ignoreCase) {
+          this.upperCaseConstants.put(constant.toString().toUpperCase(Locale.ENGLISH), constant);
+        }
+      }
+    }
+
+    @Override
+    public Object convert(String value, Class<?> targetType) throws SectionValueException {
+      Object result = this.constants.get(value);
+
+      if (result == null && this.upperCaseConstants != null) {
+        result = this.upperCaseConstants.get(value.toUpperCase(Locale.ENGLISH));
+      }
+
       if (result == null) {
         throw new SectionValueException("There is no enum constant for '" + value + "' in " + targetType);
       }
       return result;
-    } else if (targetType == URL.class) {
+    }
+
+  }
+
+  /**
+   * Converts values by calling a static <code>parse(CharSequence)</code> method of the target type.
+   */
+  private static final class ParseMethodConverter implements ValueConverter {
+
+    private final Method method;
+
+    private ParseMethodConverter(Method method) {
+      this.method = method;
+    }
+
+    @Override
+    public Object convert(String value, Class<?> targetType) throws SectionValueException {
       try {
-        return new URL(value);
-      } catch (MalformedURLException e) {
-        throw new SectionValueException("Could not parse URL from '" + value + "': " + e.getMessage());
+        return this.method.invoke(null, value);
+      } catch (InvocationTargetException e) {
+        throw new SectionValueException("Could not parse " + targetType.getSimpleName() + " from '" + value + "': "
+            + e.getCause().getMessage());
+      } catch (IllegalAccessException e) {
+        throw new SectionValueException("Could not parse " + targetType.getSimpleName() + " from '" + value + "': "
+            + e);
       }
-    } else if (targetType == Package.class) {
-      return Package.getPackage(value);
+    }
 
-    } else if (targetType == Date.class) {
-      try {
-        if (value.charAt(0) == 'T') {
-          return this.fmtTime.parse(value);
-        } else if (value.length() <= 10) {
-          return this.fmtDate.parse(value);
-        } else {
-          return this.fmtDateTime.parse(value);
+  }
+
+  /**
+   * The built-in conversions that do not depend on converter state.
+   */
+  private enum BuiltIn implements ValueConverter {
+
+    STRING(String.class) {
+      @Override
+      public Object convert(String value, Class<?> targetType) {
+        return value;
+      }
+    },
+
+    LONG(Long.class, long.class) {
+      @Override
+      public Object convert(String value, Class<?> targetType) throws SectionValueException {
+        return Long.valueOf(NumberParser.parseLong(value));
+      }
+    },
+
+    INTEGER(Integer.class, int.class) {
+      @Override
+      public Object convert(String value, Class<?> targetType) throws SectionValueException {
+        return Integer.valueOf(NumberParser.parseInt(value));
+      }
+    },
+
+    SHORT(Short.class, short.class) {
+      @Override
+      public Object convert(String value, Class<?> targetType) throws SectionValueException {
+        return Short.valueOf(NumberParser.parseShort(value));
+      }
+    },
+
+    DOUBLE(Double.class, double.class) {
+      @Override
+      public Object convert(String value, Class<?> targetType) throws SectionValueException {
+        try {
+          return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+          throw new SectionValueException("Could not parse double from '" + value + "'");
         }
-      } catch (ParseException e) {
-        throw new SectionValueException("Could not parse Date from '" + value + "': " + e.getMessage() + " at "
-            + e.getErrorOffset());
       }
-    }
+    },
 
-    try {
-      Class<?> type = Class.forName(value);
+    FLOAT(Float.class, float.class) {
+      @Override
+      public Object convert(String value, Class<?> targetType) throws SectionValueException {
+        try {
+          return Float.valueOf(value);
+        } catch (NumberFormatException e) {
+          throw new SectionValueException("Could not parse float from '" + value + "'");
+        }
+      }
+    },
 
-      if (targetType == Class.class) {
-        return type;
-      } else if (!targetType.isAssignableFrom(type)) {
-        throw new SectionValueException(type + "' cannot be assigned to required type: " + targetType);
+    CHARACTER(Character.class, char.class) {
+      @Override
+      public Object convert(String value, Class<?> targetType) {
+        return Character.valueOf(value.length() > 0 ? value.charAt(0) : '\0');
       }
+    },
 
-      return type.newInstance();
-    } catch (ClassNotFoundException e) {
-      throw new SectionValueException("Cannot find and load class '" + value + "'");
-    } catch (InstantiationException e) {
-      throw new SectionValueException("Cannot instantiate class '" + value + "' using default constructor: " + e);
-    } catch (IllegalAccessException e) {
-      throw new SectionValueException("Cannot instantiate class '" + value + "' using default constructor: " + e);
+    BYTE(Byte.class, byte.class) {
+      @Override
+      public Object convert(String value, Class<?> targetType) throws SectionValueException {
+        return Byte.valueOf(NumberParser.parseByte(value));
+      }
+    },
+
+    BOOLEAN(Boolean.class, boolean.class) {
+      @Override
+      public Object convert(String value, Class<?> targetType) {
+        return Boolean.valueOf(value);
+      }
+    },
+
+    BIG_DECIMAL(BigDecimal.class) {
+      @Override
+      public Object convert(String value, Class<?> targetType) throws SectionValueException {
+        try {
+          return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+          throw new SectionValueException("Could not parse BigDecimal from '" + value + "'");
+        }
+      }
+    },
+
+    BIG_INTEGER(BigInteger.class) {
+      @Override
+      public Object convert(String value, Class<?> targetType) throws SectionValueException {
+        try {
+          return new BigInteger(value);
+        } catch (NumberFormatException e) {
+          throw new SectionValueException("Could not parse BigInteger from '" + value + "'");
+        }
+      }
+    },
+
+    URI_VALUE(URI.class) {
+      @Override
+      public Object convert(String value, Class<?> targetType) throws SectionValueException {
+        try {
+          return new URI(value);
+        } catch (URISyntaxException e) {
+          throw new SectionValueException("Could not parse URI from '" + value + "': " + e.getMessage());
+        }
+      }
+    },
+
+    URL_VALUE(URL.class) {
+      @Override
+      public Object convert(String value, Class<?> targetType) throws SectionValueException {
+        try {
+          return new URL(value);
+        } catch (MalformedURLException e) {
+          throw new SectionValueException("Could not parse URL from '" + value + "': " + e.getMessage());
+        }
+      }
+    },
+
+    PACKAGE(Package.class) {
+      @Override
+      public Object convert(String value, Class<?> targetType) {
+        return Package.getPackage(value);
+      }
+    },
+
+    DATE(Date.class) {
+      @Override
+      public Object convert(String value, Class<?> targetType) throws SectionValueException {
+        try {
+          if (value.charAt(0) == 'T') {
+            return dateFormat(FMT_TIME, PATTERN_TIME).parse(value);
+          } else if (value.length() <= 10) {
+            return dateFormat(FMT_DATE, PATTERN_DATE).parse(value);
+          } else {
+            return dateFormat(FMT_DATE_TIME, PATTERN_DATE_TIME).parse(value);
+          }
+        } catch (ParseException e) {
+          throw new SectionValueException("Could not parse Date from '" + value + "': " + e.getMessage() + " at "
+              + e.getErrorOffset());
+        }
+      }
+    };
+
+    private final Class<?>[] types;
+
+    BuiltIn(Class<?>... types) {
+      this.types = types;
     }
+
   }
 
 }
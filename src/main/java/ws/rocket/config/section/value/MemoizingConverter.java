@@ -0,0 +1,179 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config.section.value;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import ws.rocket.config.section.SectionValueException;
+
+/**
+ * A value converter that remembers the converted values of chosen target types, so that a repeated value is converted
+ * only once. The actual conversion is delegated to another converter. This is useful when configuration files repeat
+ * the same values many times (e.g. URLs shared by many sections of a map-based model).
+ * <p>
+ * Only immutable target types must be memoized, as all the conversions of the same text return the same value
+ * instance. By default, <code>java.net.URI</code>, <code>java.net.URL</code>, <code>java.math.BigDecimal</code>,
+ * <code>java.math.BigInteger</code>, and <code>java.lang.Package</code> values are memoized.
+ * <p>
+ * The amount of remembered values is limited: once the limit is reached, new values are converted but not remembered.
+ * Failed conversions and <code>null</code> results are never remembered. This converter is thread-safe when the
+ * delegate converter is.
+ * <p>
+ * Values of types that are not memoized are converted from a range of characters when the delegate supports it.
+ *
+ * @author Martti Tamm
+ */
+public final class MemoizingConverter implements RangeValueConverter {
+
+  private static final Class<?>[] DEFAULT_TYPES = {
+    URI.class, URL.class, BigDecimal.class, BigInteger.class, Package.class
+  };
+
+  private final ValueConverter delegate;
+
+  private final Map<Class<?>, ConcurrentMap<String, Object>> caches;
+
+  private final int maxSize;
+
+  private final AtomicInteger size = new AtomicInteger();
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Creates a new memoizing converter for the default immutable types.
+   *
+   * @param delegate The converter that performs the actual conversions (required).
+   * @param maxSize The maximum amount of values to remember (of all types together).
+   */
+  public MemoizingConverter(ValueConverter delegate, int maxSize) {
+    this(delegate, maxSize, DEFAULT_TYPES);
+  }
+
+  /**
+   * Creates a new memoizing converter for given immutable types. Values of other target types are just delegated.
+   *
+   * @param delegate The converter that performs the actual conversions (required).
+   * @param maxSize The maximum amount of values to remember (of all types together).
+   * @param types The target types of the values to remember. These types must be immutable.
+   */
+  public MemoizingConverter(ValueConverter delegate, int maxSize, Class<?>... types) {
+    if (delegate == null) {
+      throw new NullPointerException("Given value converter is a null reference");
+    } else if (maxSize < 0) {
+      throw new IllegalArgumentException("Maximum cache size must not be negative");
+    }
+
+    this.delegate = delegate;
+    this.maxSize = maxSize;
+    this.caches = new IdentityHashMap<Class<?>, ConcurrentMap<String, Object>>(types.length);
+
+    for (Class<?> type : types) {
+      this.caches.put(type, new ConcurrentHashMap<String, Object>());
+    }
+  }
+
+  @Override
+  public Object convert(String value, Class<?> targetType) throws SectionValueException {
+    ConcurrentMap<String, Object> cache = value != null ? this.caches.get(targetType) : null;
+    if (cache == null) {
+      return this.delegate.convert(value, targetType);
+    }
+
+    Object result = cache.get(value);
+
+    if (result != null) {
+      this.hits.incrementAndGet();
+    } else {
+      this.misses.incrementAndGet();
+      result = this.delegate.convert(value, targetType);
+
+      if (result != null && this.size.get() < this.maxSize && cache.putIfAbsent(value, result) == null) {
+        this.size.incrementAndGet();
+      }
+    }
+
+    return result;
+  }
+
+  @Override
+  public boolean supportsRange(Class<?> targetType) {
+    return this.delegate instanceof RangeValueConverter && !this.caches.containsKey(targetType)
+        && ((RangeValueConverter) this.delegate).supportsRange(targetType);
+  }
+
+  @Override
+  public Object convert(String text, int start, int end, Class<?> targetType) throws SectionValueException {
+    if (supportsRange(targetType)) {
+      return ((RangeValueConverter) this.delegate).convert(text, start, end, targetType);
+    }
+    return convert(text.substring(start, end), targetType);
+  }
+
+  /**
+   * Provides the amount of conversions that were served from the remembered values.
+   *
+   * @return The count of cache hits.
+   */
+  public long getHitCount() {
+    return this.hits.get();
+  }
+
+  /**
+   * Provides the amount of conversions of memoized types that were delegated to the underlying converter.
+   *
+   * @return The count of cache misses.
+   */
+  public long getMissCount() {
+    return this.misses.get();
+  }
+
+  /**
+   * Provides the ratio of cache hits to all conversions of memoized types.
+   *
+   * @return A number from 0 to 1 (0 when nothing has been converted yet).
+   */
+  public double getHitRate() {
+    long hitCount = this.hits.get();
+    long total = hitCount + this.misses.get();
+    return total == 0 ? 0 : (double) hitCount / total;
+  }
+
+  /**
+   * Provides the amount of currently remembered values.
+   *
+   * @return The cache size.
+   */
+  public int getSize() {
+    return this.size.get();
+  }
+
+  @Override
+  public String toString() {
+    return "MemoizingConverter[size=" + getSize() + ", hits=" + getHitCount() + ", misses=" + getMissCount() + "]";
+  }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config.section.value;
+
+import ws.rocket.config.Diagnostic;
+import ws.rocket.config.section.SectionValueException;
+
+/**
+ * Parses integer numbers directly from a range of characters, without creating intermediate <code>String</code>s and
+ * without raising <code>NumberFormatException</code>s. The accepted format is the same as for
+ * <code>Long.parseLong(String)</code>: an optional sign followed by decimal digits.
+ * <p>
+ * Parsing failures are reported as <code>SectionValueException</code>s, which point to the column (within the parsed
+ * range) where the problem was detected.
+ *
+ * @author Martti Tamm
+ */
+public final class NumberParser {
+
+  private NumberParser() {
+  }
+
+  /**
+   * Parses a <code>long</code> value from the whole character sequence.
+   *
+   * @param text The characters to parse (required).
+   * @return The parsed value.
+   * @throws SectionValueException When the text is not a number or the number is out of range.
+   */
+  public static long parseLong(CharSequence text) throws SectionValueException {
+    return parseLong(text, 0, text.length(), Long.MIN_VALUE, Long.MAX_VALUE);
+  }
+
+  /**
+   * Parses an <code>int</code> value from the whole character sequence.
+   *
+   * @param text The characters to parse (required).
+   * @return The parsed value.
+   * @throws SectionValueException When the text is not a number or the number is out of range.
+   */
+  public static int parseInt(CharSequence text) throws SectionValueException {
+    return (int) parseLong(text, 0, text.length(), Integer.MIN_VALUE, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Parses a <code>short</code> value from the whole character sequence.
+   *
+   * @param text The characters to parse (required).
+   * @return The parsed value.
+   * @throws SectionValueException When the text is not a number or the number is out of range.
+   */
+  public static short parseShort(CharSequence text) throws SectionValueException {
+    return (short) parseLong(text, 0, text.length(), Short.MIN_VALUE, Short.MAX_VALUE);
+  }
+
+  /**
+   * Parses a <code>byte</code> value from the whole character sequence.
+   *
+   * @param text The characters to parse (required).
+   * @return The parsed value.
+   * @throws SectionValueException When the text is not a number or the number is out of range.
+   */
+  public static byte parseByte(CharSequence text) throws SectionValueException {
+    return (byte) parseLong(text, 0, text.length(), Byte.MIN_VALUE, Byte.MAX_VALUE);
+  }
+
+  /**
+   * Parses an integer value from the given range of characters, and checks that it is within given limits. The value
+   * is accumulated as a negative number, so that overflow can be detected before it happens.
+   *
+   * @param text The characters to parse (required).
+   * @param start The index of the first character to parse.
+   * @param end The index after the last character to parse.
+   * @param min The minimum allowed value.
+   * @param max The maximum allowed value.
+   * @return The parsed value.
+   * @throws SectionValueException When the range is not a number or the number is out of range.
+   */
+  public static long parseLong(CharSequence text, int start, int end, long min, long max)
+      throws SectionValueException {
+
+    int i = start;
+    boolean negative = false;
+
+    if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+      negative = text.charAt(i) == '-';
+      i++;
+    }
+
+    if (i >= end) {
+      throw new SectionValueException(Diagnostic.Code.NUMBER_EXPECTED, false, i - start + 1,
+          new Object[] { text.subSequence(start, end) });
+    }
+
+    long limit = negative ? min : -max;
+    long multLimit = limit / 10;
+    long result = 0;
+
+    for (; i < end; i++) {
+      int digit = Character.digit(text.charAt(i), 10);
+
+      if (digit < 0) {
+        throw new SectionValueException(Diagnostic.Code.NUMBER_CHARACTER, false, i - start + 1,
+            new Object[] { text.charAt(i), text.subSequence(start, end) });
+      } else if (result < multLimit || result * 10 < limit + digit) {
+        throw new SectionValueException(Diagnostic.Code.NUMBER_RANGE, false, i - start + 1,
+            new Object[] { text.subSequence(start, end), min, max });
+      }
+
+      result = result * 10 - digit;
+    }
+
+    return negative ? result : -result;
+  }
+
+}
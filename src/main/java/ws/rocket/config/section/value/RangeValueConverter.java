@@ -0,0 +1,53 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config.section.value;
+
+import ws.rocket.config.section.SectionValueException;
+
+/**
+ * A value converter that can also convert a value from a range of characters of a line, so that section readers do not
+ * need to extract the value as a new string first. Converters that decorate another converter should implement this
+ * interface by delegating, so that the capability of the decorated converter is not lost.
+ *
+ * @author Martti Tamm
+ * @see DefaultConverter
+ */
+public interface RangeValueConverter extends ValueConverter {
+
+  /**
+   * Informs whether values of the given target type can be converted from a range of characters.
+   *
+   * @param targetType The target type as class (required).
+   * @return A Boolean that is true when {@link #convert(String, int, int, Class)} supports the target type.
+   */
+  boolean supportsRange(Class<?> targetType);
+
+  /**
+   * Converts the value in the given range of characters to target type. The outcome must be the same as converting
+   * <code>text.substring(start, end)</code> with {@link #convert(String, Class)}, including the column of a failure
+   * (relative to <code>start</code>).
+   *
+   * @param text The text containing the source value (required).
+   * @param start The index of the first character of the value.
+   * @param end The index after the last character of the value.
+   * @param targetType The target type as class (required).
+   * @return The converted value. May be a null.
+   * @throws SectionValueException When the value has problems that blocked the conversion.
+   */
+  Object convert(String text, int start, int end, Class<?> targetType) throws SectionValueException;
+
+}
@@ -17,7 +17,6 @@
 package ws.rocket.config.section.write;
 
 import java.util.Map;
-import ws.rocket.config.bean.BeanType;
 import ws.rocket.config.bean.BeanValidator;
 import ws.rocket.config.bean.BeanWriter;
 import ws.rocket.config.reader.StreamWriter;
@@ -61,7 +60,7 @@ public final class BeanConstructorWriter implements SectionWriter {
   @Override
   @SuppressWarnings({ "unchecked", "rawtypes" })
   public void write(BeanWriter<?> writer, Object values, Class<?> valueType) {
-    valueType = new BeanType(writer.getBean().getClass()).getPropertyType(this.propertyName, this.paramNames.length);
+    valueType = writer.getPropertyType(this.propertyName, this.paramNames.length);
     Object bean = writer.construct(valueType, this.paramNames, (Map<String, String>) values);
 
     if (bean != null) {
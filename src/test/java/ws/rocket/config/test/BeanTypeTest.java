@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+import ws.rocket.config.bean.BeanType;
+import ws.rocket.config.test.data.ConfigTestModel;
+import ws.rocket.config.test.data.ReadOnlyModel;
+import ws.rocket.config.test.data.filter.TestFilter;
+
+/**
+ * Tests the bean type introspection and the shared registry of bean types.
+ *
+ * @author Martti Tamm
+ */
+public final class BeanTypeTest {
+
+  /**
+   * The registry must return the same bean type instance for the same class.
+   */
+  @Test
+  public void testRegistryShared() {
+    BeanType<ConfigTestModel> type = BeanType.of(ConfigTestModel.class);
+
+    assertSame(BeanType.of(ConfigTestModel.class), type, "Bean type from registry");
+    assertSame(type.getBeanClass(), ConfigTestModel.class, "Bean class");
+  }
+
+  /**
+   * The cached setter and constructor information must match the class.
+   */
+  @Test
+  public void testIntrospection() {
+    BeanType<ConfigTestModel> type = BeanType.of(ConfigTestModel.class);
+
+    assertNotNull(type.getSetterMethod("amount", int.class), "Setter for 'amount'");
+    assertNull(type.getSetterMethod("amount", Integer.class), "Setter for 'amount' with Integer");
+    assertNotNull(type.getSetterMethodWithArray("interceptorsArray", TestFilter.class), "Array setter");
+    assertEquals(type.getSetterMethods("description").size(), 1, "Setters for 'description'");
+    assertTrue(type.getSetterMethods("noSuchProperty").isEmpty(), "Setters for unknown property");
+    assertEquals(type.getConstructors(0).size(), 1, "Default constructors");
+    assertSame(type.getPropertyType("readOnly", 3), ReadOnlyModel.class, "Property type with 3-param constructor");
+  }
+
+}
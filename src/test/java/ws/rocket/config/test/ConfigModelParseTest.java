@@ -19,13 +19,27 @@ package ws.rocket.config.test;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import org.testng.SkipException;
 import org.testng.annotations.Test;
 import ws.rocket.config.ConfigException;
 import ws.rocket.config.ConfigModel;
+import ws.rocket.config.Diagnostic;
+import ws.rocket.config.FlightRecorderListener;
 import ws.rocket.config.Messages;
+import ws.rocket.config.ParseStats;
 import ws.rocket.config.test.data.ConfigTestModel;
 import ws.rocket.config.test.data.filter.Phase1Filter;
 import ws.rocket.config.test.data.filter.Phase2Filter;
@@ -77,6 +91,241 @@ public final class ConfigModelParseTest {
 
   }
 
+  /**
+   * Creates a model with sections in a different order than in configuration file (<em>/config-test.conf</em>), and
+   * validates that the file can be parsed only when the model accepts sections in any order.
+   *
+   * @throws ConfigException When parsing fails.
+   */
+  @Test
+  public void testModelParseAnyOrder() throws ConfigException {
+    ConfigModel.ConfigModelBuilder<ConfigTestModel> builder = ConfigModel.expect(ConfigTestModel.class)
+            .section("filters-array").ofList(TestFilter.class).storeIn("interceptorsArray")
+            .section("filters").ofList(TestFilter.class).storeIn("interceptors")
+            .section("handlers").ofMap(TestHandler.class).storeIn("handlers")
+            .section("read-only").ofMap().storeInBeanOf("readOnly", "code", "text", "enabled")
+            .section("main").ofMap().storeInBeanProps();
+
+    try {
+      builder.ready().parse(ConfigTestModel.class.getResourceAsStream("/config-test.conf"));
+      fail("Expected sections in wrong order to be rejected");
+    } catch (ConfigException e) {
+      assertEquals(e.getMessages().getErrorCount(), 4);
+    }
+
+    ConfigModel<ConfigTestModel> model = builder.anyOrder().ready();
+    assertTrue(model.isAnyOrder());
+
+    ConfigTestModel config = model.parse(ConfigTestModel.class.getResourceAsStream("/config-test.conf"));
+
+    validateGeneralSection(config);
+    validateReadOnlySection(config);
+    validateHandlerSection(config);
+    validateFilterSection(config);
+    validateFilterArraySection(config);
+  }
+
+  /**
+   * Parses only some sections of configuration file (<em>/config-test.conf</em>), and validates that other sections
+   * are skipped.
+   *
+   * @throws ConfigException When parsing fails.
+   */
+  @Test
+  public void testModelParseSelected() throws ConfigException {
+    ConfigModel<ConfigTestModel> model = ConfigModel.expect(ConfigTestModel.class)
+            .section("main").ofMap().storeInBeanProps()
+            .section("read-only").ofMap().storeInBeanOf("readOnly", "code", "text", "enabled")
+            .section("filters").ofList(TestFilter.class).storeIn("interceptors")
+            .ready();
+
+    ConfigTestModel config = model.parse(ConfigTestModel.class.getResourceAsStream("/config-test.conf"),
+        "read-only", "filters");
+
+    assertNull(config.getDescription(), "Section [main] must be skipped");
+    validateReadOnlySection(config);
+    validateFilterSection(config);
+
+    String data = "[main]\namount = x\n[unknown]\n = \n[filters]\n\nws.rocket.config.test.data.filter.None\n";
+    try {
+      model.parse(new ByteArrayInputStream(data.getBytes()), "filters");
+      fail("Expected the bad value in [filters] to be reported");
+    } catch (ConfigException e) {
+      assertEquals(e.getMessages().getErrorCount(), 1);
+      assertTrue(e.getMessages().getErrors()[0].startsWith("[filters:7]"), e.getMessages().getErrors()[0]);
+    }
+
+    data = "[filters]\nws.rocket.config.test.data.filter.Phase1Filter\n[main]\n";
+    InputStream unreadable = new InputStream() {
+      @Override
+      public int read() throws IOException {
+        throw new IOException("The stream must not be read after the selected sections");
+      }
+    };
+    config = model.parse(new SequenceInputStream(new ByteArrayInputStream(data.getBytes()), unreadable), "filters");
+    assertEquals(config.getInterceptors().size(), 1);
+  }
+
+  /**
+   * Parses a configuration with several bad values, and validates that the model stops at the error limit and ignores
+   * warnings when requested.
+   */
+  @Test
+  public void testModelErrorLimit() {
+    String data = "[main]\namount = x\namount = 1\nport = y\nindex = z\n";
+
+    assertEquals(parseErrors(ConfigModel.expect(ConfigTestModel.class), data), "3 errors, 4 warnings");
+    assertEquals(parseErrors(ConfigModel.expect(ConfigTestModel.class).failFast(), data), "1 errors, 2 warnings");
+    assertEquals(parseErrors(ConfigModel.expect(ConfigTestModel.class).errorLimit(2), data), "2 errors, 3 warnings");
+    assertEquals(parseErrors(ConfigModel.expect(ConfigTestModel.class).ignoreWarnings(), data), "3 errors, 0 warnings");
+  }
+
+  /**
+   * Parses a configuration with many warnings, and validates that only the limited amount of warnings is stored as
+   * diagnostics, while the rest are counted.
+   */
+  @Test
+  public void testModelWarningLimit() {
+    String data = "[main]\nindex = x\nindex = 2\nindex = 3\nindex = 4\n";
+
+    try {
+      ConfigModel.expect(ConfigTestModel.class).warningLimit(2).section("main").ofMap().storeInBeanProps().ready()
+          .parse(new ByteArrayInputStream(data.getBytes()));
+      fail("Expected the bad value to be reported");
+    } catch (ConfigException e) {
+      Messages msgs = e.getMessages();
+      List<Diagnostic> warnings = msgs.getWarningDiagnostics();
+
+      assertEquals(warnings.size(), 2);
+      assertEquals(warnings.get(0).getCode(), Diagnostic.Code.DUPLICATE_PROPERTY);
+      assertEquals(warnings.get(0).getSection(), "main");
+      assertEquals(warnings.get(0).getLine(), 3);
+      assertEquals(warnings.get(0).toString(),
+          "[main:3]: Property 'index is specified more than once, but only first value was registered");
+      assertEquals(msgs.getOmittedWarningCount(Diagnostic.Code.DUPLICATE_PROPERTY), 1);
+      assertTrue(msgs.getWarningCount() > warnings.size());
+      assertEquals(msgs.getErrorCount(), 1);
+    }
+  }
+
+  /**
+   * Parses a configuration with a listener, and validates the collected parse measurements.
+   *
+   * @throws ConfigException When parsing fails unexpectedly.
+   */
+  @Test
+  public void testModelParseStats() throws ConfigException {
+    ConfigModel<ConfigTestModel> model = ConfigModel.expect(ConfigTestModel.class)
+            .section("main").ofMap().storeInBeanProps()
+            .section("filters").ofList(TestFilter.class).storeIn("interceptors")
+            .ready();
+
+    String data = "[main]\ndescription = Test\namount = 5\n\n[filters]\n" + Phase1Filter.class.getName() + "\n";
+    ParseStats stats = new ParseStats();
+    ConfigTestModel config = model.parse(new ByteArrayInputStream(data.getBytes()), stats);
+
+    assertEquals(config.getAmount(), 5);
+    assertEquals(stats.getParseCount(), 1);
+    assertTrue(stats.getParseNanos() > 0);
+    assertEquals(stats.getSectionNames().toString(), "[main, filters]");
+    assertEquals(stats.getSectionLines("main"), 3);
+    assertEquals(stats.getSectionBytes("main"), 31);
+    assertEquals(stats.getSectionLines("filters"), 1);
+    assertEquals(stats.getSectionBytes("filters"), 47);
+    assertEquals(stats.getConversionCount(int.class, true), 1);
+    assertEquals(stats.getConversionCount(TestFilter.class, true), 1);
+    assertEquals(stats.getConversionCount(TestFilter.class, false), 0);
+    assertEquals(stats.getPropertyCount(), 3);
+  }
+
+  /**
+   * Parses a configuration with the Flight Recorder listener, and validates that the listener does not affect parsing,
+   * whether or not the Java runtime supports Flight Recorder events.
+   *
+   * @throws ConfigException When parsing fails unexpectedly.
+   */
+  @Test
+  public void testModelParseFlightRecorder() throws ConfigException {
+    ConfigModel<ConfigTestModel> model = ConfigModel.expect(ConfigTestModel.class)
+            .section("main").ofMap().storeInBeanProps()
+            .ready();
+
+    String data = "[main]\namount = 5\n";
+    ConfigTestModel config = model.parse(new ByteArrayInputStream(data.getBytes()),
+        FlightRecorderListener.getInstance());
+
+    assertEquals(config.getAmount(), 5);
+  }
+
+  /**
+   * Parses a configuration during a Flight Recorder recording, and validates the recorded events. The Flight Recorder
+   * API is accessed reflectively, and the test is skipped when the Java runtime does not support it.
+   *
+   * @throws Exception When parsing or recording fails unexpectedly.
+   */
+  @Test
+  public void testModelFlightRecorderEvents() throws Exception {
+    if (!FlightRecorderListener.getInstance().isSupported()) {
+      throw new SkipException("Flight Recorder is not supported by the Java runtime");
+    }
+
+    ConfigModel<ConfigTestModel> model = ConfigModel.expect(ConfigTestModel.class)
+            .section("main").ofMap().storeInBeanProps()
+            .ready();
+
+    Class<?> recordingType = Class.forName("jdk.jfr.Recording");
+    Class<?> pathType = Class.forName("java.nio.file.Path");
+    Object recording = recordingType.newInstance();
+    File file = File.createTempFile("config-test", ".jfr");
+    file.deleteOnExit();
+
+    try {
+      recordingType.getMethod("enable", String.class).invoke(recording, "ws.rocket.config.ConfigParse");
+      recordingType.getMethod("enable", String.class).invoke(recording, "ws.rocket.config.ConfigSectionParse");
+      recordingType.getMethod("start").invoke(recording);
+
+      model.parse(new ByteArrayInputStream("[main]\namount = 5\n".getBytes()), FlightRecorderListener.getInstance());
+
+      recordingType.getMethod("stop").invoke(recording);
+      recordingType.getMethod("dump", pathType).invoke(recording, File.class.getMethod("toPath").invoke(file));
+    } finally {
+      recordingType.getMethod("close").invoke(recording);
+    }
+
+    List<?> events = (List<?>) Class.forName("jdk.jfr.consumer.RecordingFile").getMethod("readAllEvents", pathType)
+        .invoke(null, File.class.getMethod("toPath").invoke(file));
+    List<String> recorded = new ArrayList<String>();
+
+    for (Object event : events) {
+      Method getValue = event.getClass().getMethod("getValue", String.class);
+      Object type = event.getClass().getMethod("getEventType").invoke(event);
+      String name = (String) type.getClass().getMethod("getName").invoke(type);
+      Object duration = event.getClass().getMethod("getDuration").invoke(event);
+      boolean zero = (Boolean) duration.getClass().getMethod("isZero").invoke(duration);
+
+      if ("ws.rocket.config.ConfigParse".equals(name)) {
+        recorded.add(name + ": " + getValue.invoke(event, "errors") + " errors" + (zero ? ", no duration" : ""));
+      } else if ("ws.rocket.config.ConfigSectionParse".equals(name)) {
+        recorded.add(name + ": [" + getValue.invoke(event, "section") + "] " + getValue.invoke(event, "lines")
+            + " lines" + (zero ? ", no duration" : ""));
+      }
+    }
+
+    Collections.sort(recorded);
+    assertEquals(recorded.toString(),
+        "[ws.rocket.config.ConfigParse: 0 errors, ws.rocket.config.ConfigSectionParse: [main] 1 lines]");
+  }
+
+  private String parseErrors(ConfigModel.ConfigModelBuilder<ConfigTestModel> builder, String data) {
+    try {
+      builder.section("main").ofMap().storeInBeanProps().ready().parse(new ByteArrayInputStream(data.getBytes()));
+      fail("Expected the bad values to be reported");
+      return null;
+    } catch (ConfigException e) {
+      return e.getMessages().getErrorCount() + " errors, " + e.getMessages().getWarningCount() + " warnings";
+    }
+  }
+
   private void verifyToString(ConfigModel<ConfigTestModel> model) {
     System.out.println(model.toString());
   }
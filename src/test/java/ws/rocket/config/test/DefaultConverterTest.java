@@ -0,0 +1,374 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.Test;
+import ws.rocket.config.ConfigException;
+import ws.rocket.config.ConfigModel;
+import ws.rocket.config.Diagnostic;
+import ws.rocket.config.ParseStats;
+import ws.rocket.config.section.SectionValueException;
+import ws.rocket.config.section.value.Conversion;
+import ws.rocket.config.section.value.DefaultConverter;
+import ws.rocket.config.section.value.MemoizingConverter;
+import ws.rocket.config.section.value.NumberParser;
+import ws.rocket.config.section.value.ValueConverter;
+import ws.rocket.config.test.data.ConfigTestModel;
+import ws.rocket.config.test.data.filter.Phase1Filter;
+import ws.rocket.config.test.data.filter.TestFilter;
+
+/**
+ * Tests the built-in value conversions and registering custom conversions.
+ *
+ * @author Martti Tamm
+ */
+public final class DefaultConverterTest {
+
+  /**
+   * Verifies some built-in conversions.
+   *
+   * @throws SectionValueException When conversion fails.
+   */
+  @Test
+  public void testBuiltIn() throws SectionValueException {
+    DefaultConverter converter = new DefaultConverter();
+
+    assertEquals(converter.convert("text", String.class), "text");
+    assertEquals(converter.convert("123", int.class), Integer.valueOf(123));
+    assertEquals(converter.convert("123", Long.class), Long.valueOf(123));
+    assertEquals(converter.convert("1.50", BigDecimal.class), new BigDecimal("1.50"));
+    assertEquals(converter.convert("urn:test", URI.class), URI.create("urn:test"));
+    assertEquals(converter.convert("SECONDS", TimeUnit.class), TimeUnit.SECONDS);
+    assertSame(converter.convert("java.lang.String", Class.class), String.class);
+    assertSame(converter.convert(Phase1Filter.class.getName(), TestFilter.class).getClass(), Phase1Filter.class);
+
+    try {
+      converter.convert("urn:bad value", URI.class);
+      fail("Conversion of a bad URI must fail.");
+    } catch (SectionValueException e) {
+      assertTrue(e.getMessage().startsWith("Could not parse URI from 'urn:bad value'"), e.getMessage());
+    }
+  }
+
+  /**
+   * Integer values must be range-checked, and failures must be reported with the column of the problem.
+   *
+   * @throws SectionValueException When conversion fails.
+   */
+  @Test
+  public void testNumbers() throws SectionValueException {
+    DefaultConverter converter = new DefaultConverter();
+
+    assertEquals(converter.convert("-128", byte.class), Byte.valueOf(Byte.MIN_VALUE));
+    assertEquals(converter.convert("+32767", short.class), Short.valueOf(Short.MAX_VALUE));
+    assertEquals(converter.convert("-9223372036854775808", long.class), Long.valueOf(Long.MIN_VALUE));
+    assertEquals(NumberParser.parseLong("x42x", 1, 3, 0, 100), 42L);
+
+    verifyNumberError(converter, "128", byte.class, 3, "Number '128' is out of range [-128, 127]");
+    verifyNumberError(converter, "9223372036854775808", long.class, 19,
+        "Number '9223372036854775808' is out of range [-9223372036854775808, 9223372036854775807]");
+    verifyNumberError(converter, "12x4", int.class, 3, "Unexpected character 'x' in number '12x4'");
+    verifyNumberError(converter, "-", Integer.class, 2, "Expected a number but got '-'");
+    verifyNumberError(converter, "1.2.3", double.class, 0, "Could not parse double from '1.2.3'");
+  }
+
+  /**
+   * The column of a bad value must be reported relative to the configuration line.
+   */
+  @Test
+  public void testNumberErrorColumn() {
+    ConfigModel<ConfigTestModel> model = ConfigModel.expect(ConfigTestModel.class)
+        .section("numbers").ofMap(String.class, Integer.class).storeIn("handlers")
+        .ready();
+
+    try {
+      model.parse(new ByteArrayInputStream("[numbers]\n  a =  12x4\n".getBytes()));
+      fail("Parsing must fail.");
+    } catch (ConfigException e) {
+      assertEquals(e.getMessages().getErrors(),
+          new String[] { "[numbers:2:10]: Unexpected character 'x' in number '12x4'" });
+    }
+  }
+
+  /**
+   * Integer map values must be parsed directly from the line with the built-in conversion, while a registered
+   * conversion of the value type must still be used.
+   *
+   * @throws Exception When parsing fails unexpectedly.
+   */
+  @Test
+  public void testNumberMapValues() throws Exception {
+    String data = "[numbers]\na = 12\nb=-7\n";
+    ConfigTestModel bean = ConfigModel.expect(ConfigTestModel.class)
+        .section("numbers").ofMap(String.class, Integer.class).storeIn("handlers")
+        .ready().parse(new ByteArrayInputStream(data.getBytes()));
+
+    assertEquals(bean.getHandlers().toString(), "{a=12, b=-7}");
+
+    ValueConverter negate = new ValueConverter() {
+      @Override
+      public Object convert(String value, Class<?> targetType) {
+        return Integer.valueOf(-Integer.parseInt(value));
+      }
+    };
+    bean = ConfigModel.expect(ConfigTestModel.class, new DefaultConverter().register(Integer.class, negate))
+        .section("numbers").ofMap(String.class, Integer.class).storeIn("handlers")
+        .ready().parse(new ByteArrayInputStream(data.getBytes()));
+
+    assertEquals(bean.getHandlers().toString(), "{a=-12, b=7}");
+
+    assertEquals(new DefaultConverter().convert("x = 42", 4, 6, long.class), Long.valueOf(42));
+    assertFalse(new DefaultConverter().register(Integer.class, negate).supportsRange(Integer.class));
+    assertTrue(new MemoizingConverter(new DefaultConverter(), 10).supportsRange(int.class));
+    assertFalse(new MemoizingConverter(new DefaultConverter(), 10, Integer.class).supportsRange(Integer.class));
+
+    ParseStats stats = new ParseStats();
+    bean = ConfigModel.expect(ConfigTestModel.class, new MemoizingConverter(new DefaultConverter(), 10))
+        .section("numbers").ofMap(String.class, Integer.class).storeIn("handlers")
+        .ready().parse(new ByteArrayInputStream(data.getBytes()), stats);
+
+    assertEquals(bean.getHandlers().toString(), "{a=12, b=-7}");
+    assertEquals(stats.getConversionCount(Integer.class, true), 2, "In-place conversions are reported");
+  }
+
+  private void verifyNumberError(DefaultConverter converter, String value, Class<?> type, int column, String msg) {
+    try {
+      converter.convert(value, type);
+      fail("Conversion of '" + value + "' to " + type + " must fail.");
+    } catch (SectionValueException e) {
+      assertEquals(e.getMessage(), msg);
+      assertEquals(e.getColumn(), column, "Error column");
+    }
+  }
+
+  /**
+   * Values of memoized types must be converted only once, until the cache is full.
+   *
+   * @throws SectionValueException When conversion fails.
+   */
+  @Test
+  public void testMemoizing() throws SectionValueException {
+    MemoizingConverter converter = new MemoizingConverter(new DefaultConverter(), 2);
+
+    Object uri = converter.convert("urn:a", URI.class);
+    assertSame(converter.convert("urn:a", URI.class), uri, "Memoized URI");
+    assertSame(converter.convert("urn:a", URI.class), uri, "Memoized URI");
+    assertEquals(converter.convert("1.5", BigDecimal.class), new BigDecimal("1.5"));
+    assertEquals(converter.convert("urn:b", URI.class), URI.create("urn:b"));
+    assertEquals(converter.convert("15", int.class), Integer.valueOf(15));
+
+    assertEquals(converter.getSize(), 2, "Cache size");
+    assertEquals(converter.getHitCount(), 2L, "Cache hits");
+    assertEquals(converter.getMissCount(), 3L, "Cache misses");
+    assertEquals(converter.getHitRate(), 0.4, 0.0001, "Cache hit rate");
+    assertNotSame(converter.convert("urn:b", URI.class), converter.convert("urn:b", URI.class), "Not memoized");
+  }
+
+  /**
+   * Class names must be resolved using the given class loader, once per class name.
+   *
+   * @throws SectionValueException When conversion fails.
+   */
+  @Test
+  public void testClassLoader() throws SectionValueException {
+    final List<String> loaded = new ArrayList<String>();
+    ClassLoader loader = new ClassLoader(getClass().getClassLoader()) {
+      @Override
+      public Class<?> loadClass(String name) throws ClassNotFoundException {
+        loaded.add(name);
+        return super.loadClass(name);
+      }
+    };
+
+    DefaultConverter converter = new DefaultConverter(loader);
+    Object filter1 = converter.convert(Phase1Filter.class.getName(), TestFilter.class);
+    Object filter2 = converter.convert(Phase1Filter.class.getName(), TestFilter.class);
+
+    assertSame(filter1.getClass(), Phase1Filter.class);
+    assertSame(filter2.getClass(), Phase1Filter.class);
+    assertNotSame(filter1, filter2, "Each value must be a new instance");
+    assertSame(converter.convert(Phase1Filter.class.getName(), Class.class), Phase1Filter.class);
+    assertEquals(loaded, Arrays.asList(Phase1Filter.class.getName()), "Classes loaded");
+  }
+
+  /**
+   * Verifies enumeration constant lookup with and without ignoring case.
+   *
+   * @throws SectionValueException When conversion fails.
+   */
+  @Test
+  public void testEnum() throws SectionValueException {
+    DefaultConverter converter = new DefaultConverter();
+
+    assertEquals(converter.convert("MINUTES", TimeUnit.class), TimeUnit.MINUTES);
+    try {
+      converter.convert("minutes", TimeUnit.class);
+      fail("Case-sensitive lookup must fail.");
+    } catch (SectionValueException e) {
+      assertEquals(e.getMessage(), "There is no enum constant for 'minutes' in " + TimeUnit.class);
+    }
+
+    converter = new DefaultConverter().ignoreEnumCase();
+    assertEquals(converter.convert("minutes", TimeUnit.class), TimeUnit.MINUTES);
+    assertEquals(converter.convert("Hours", TimeUnit.class), TimeUnit.HOURS);
+  }
+
+  /**
+   * Verifies that the <code>java.time</code> types are supported (when running on Java 8 or newer).
+   *
+   * @throws Exception When conversion fails.
+   */
+  @Test
+  public void testJavaTime() throws Exception {
+    DefaultConverter converter = new DefaultConverter();
+    Class<?> localDate;
+
+    try {
+      localDate = Class.forName("java.time.LocalDate");
+    } catch (ClassNotFoundException e) {
+      return;
+    }
+
+    assertEquals(converter.convert("2014-05-06", localDate).toString(), "2014-05-06");
+    assertEquals(converter.convert("2014-05-06T07:08:09", Class.forName("java.time.LocalDateTime")).toString(),
+        "2014-05-06T07:08:09");
+    assertEquals(converter.convert("2014-05-06T07:08:09Z", Class.forName("java.time.Instant")).toString(),
+        "2014-05-06T07:08:09Z");
+    assertEquals(converter.convert("PT15M", Class.forName("java.time.Duration")).toString(), "PT15M");
+  }
+
+  /**
+   * The same converter instance must give the same results when used concurrently by multiple threads.
+   *
+   * @throws Exception When conversion fails.
+   */
+  @Test
+  public void testConcurrentDates() throws Exception {
+    final DefaultConverter converter = new DefaultConverter();
+    final String[] values = { "2014-05-06", "T07:08:09", "2014-05-06T07:08:09", "1999-12-31T11:59:59" };
+    final Object[] expected = new Object[values.length];
+
+    for (int i = 0; i < values.length; i++) {
+      expected[i] = converter.convert(values[i], Date.class);
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+
+      for (int t = 0; t < 8; t++) {
+        results.add(executor.submit(new Callable<Boolean>() {
+          @Override
+          public Boolean call() throws Exception {
+            for (int n = 0; n < 1000; n++) {
+              int i = n % values.length;
+              if (!expected[i].equals(converter.convert(values[i], Date.class))) {
+                return Boolean.FALSE;
+              }
+            }
+            return Boolean.TRUE;
+          }
+        }));
+      }
+
+      for (Future<Boolean> result : results) {
+        assertEquals(result.get(), Boolean.TRUE, "Concurrent date conversion result");
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * A registered conversion must be used for its target type, also replacing a built-in conversion.
+   *
+   * @throws SectionValueException When conversion fails.
+   */
+  @Test
+  public void testRegister() throws SectionValueException {
+    ValueConverter upper = new ValueConverter() {
+      @Override
+      public Object convert(String value, Class<?> targetType) {
+        return value.toUpperCase();
+      }
+    };
+    ValueConverter filter = new ValueConverter() {
+      @Override
+      public Object convert(String value, Class<?> targetType) {
+        return new Phase1Filter();
+      }
+    };
+
+    DefaultConverter converter = new DefaultConverter()
+        .register(String.class, upper)
+        .register(TestFilter.class, filter);
+
+    assertEquals(converter.convert("text", String.class), "TEXT");
+    assertSame(converter.convert("any", TestFilter.class).getClass(), Phase1Filter.class);
+    assertEquals(converter.convert("7", int.class), Integer.valueOf(7));
+  }
+
+  /**
+   * Conversions must be attempted without exceptions, and failures must not carry a stack trace.
+   */
+  @Test
+  public void testTryConvert() {
+    DefaultConverter converter = new DefaultConverter();
+
+    Conversion success = Conversion.tryConvert(converter, "42", Integer.class);
+    assertTrue(success.isSuccess());
+    assertEquals(success.getValue(), 42);
+    assertNull(success.getFailure());
+
+    Conversion failure = Conversion.tryConvert(converter, "4x2", Integer.class);
+    assertFalse(failure.isSuccess());
+    assertNull(failure.getValue());
+    assertEquals(failure.getColumn(), 2);
+    assertEquals(failure.getFailure(), "Unexpected character 'x' in number '4x2'");
+    assertEquals(failure.getFailureDiagnostic().getCode(), Diagnostic.Code.NUMBER_CHARACTER);
+    assertEquals(Arrays.toString(failure.getFailureDiagnostic().getArguments()), "[x, 4x2]");
+
+    try {
+      failure.get();
+      fail("Expected the failure to be thrown");
+    } catch (SectionValueException e) {
+      assertEquals(e.getStackTrace().length, 0);
+      assertEquals(e.getColumn(), 2);
+    }
+  }
+
+}
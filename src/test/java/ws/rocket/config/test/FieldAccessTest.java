@@ -0,0 +1,129 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.Map;
+import org.testng.annotations.Test;
+import ws.rocket.config.ConfigException;
+import ws.rocket.config.ConfigModel;
+import ws.rocket.config.MapConfigModel;
+import ws.rocket.config.bean.BeanAccess;
+import ws.rocket.config.bean.ModelException;
+import ws.rocket.config.section.value.DefaultConverter;
+import ws.rocket.config.test.data.FieldModel;
+import ws.rocket.config.test.data.filter.Phase1Filter;
+import ws.rocket.config.test.data.filter.Phase2Filter;
+import ws.rocket.config.test.data.filter.TestFilter;
+
+/**
+ * Tests writing configuration values directly to bean fields (the bean has no setter methods).
+ *
+ * @author Martti Tamm
+ */
+public final class FieldAccessTest {
+
+  private static final String CONFIG = "[main]\ndescription = Fields\namount = 42\nclazz = java.lang.String\n"
+      + "[read-only]\ncode = 500\ntext = Error\nenabled = true\n"
+      + "[names]\nfirst\nsecond\n"
+      + "[filters]\nws.rocket.config.test.data.filter.Phase1Filter\nws.rocket.config.test.data.filter.Phase2Filter\n"
+      + "[codes]\n200\n404\n";
+
+  /**
+   * Creates a model with field access, parses configuration, and validates the parsed data.
+   *
+   * @throws ConfigException When parsing fails.
+   */
+  @Test
+  public void testModelParse() throws ConfigException {
+    ConfigModel<FieldModel> model = ConfigModel.expect(FieldModel.class, new DefaultConverter(), BeanAccess.FIELDS)
+        .section("main").ofMap().storeInBeanProps("description", "amount", "clazz")
+        .section("read-only").ofMap().storeInBeanOf("readOnly", "code", "text", "enabled")
+        .section("names").ofList().storeIn("names")
+        .section("filters").ofList(TestFilter.class).storeIn("filters")
+        .section("codes").ofList(int.class).storeIn("codes")
+        .ready();
+
+    FieldModel config = model.parse(new ByteArrayInputStream(CONFIG.getBytes()));
+
+    assertEquals(config.getDescription(), "Fields");
+    assertEquals(config.getAmount(), 42);
+    assertEquals(config.getClazz(), String.class);
+    assertNotNull(config.getReadOnly());
+    assertEquals(config.getReadOnly().getCode(), 500);
+    assertEquals(config.getNames(), Arrays.asList("first", "second"));
+    assertEquals(config.getFilters().length, 2);
+    assertEquals(config.getFilters()[0].getClass(), Phase1Filter.class);
+    assertEquals(config.getFilters()[1].getClass(), Phase2Filter.class);
+    assertEquals(Arrays.toString(config.getCodes()), "[200, 404]");
+  }
+
+  /**
+   * A value that cannot be converted to the field type must be reported as an error.
+   */
+  @Test
+  public void testFieldConversionFailure() {
+    ConfigModel<FieldModel> model = ConfigModel.expect(FieldModel.class, new DefaultConverter(), BeanAccess.FIELDS)
+        .section("main").ofMap().storeInBeanProps("description", "amount")
+        .ready();
+
+    try {
+      model.parse(new ByteArrayInputStream("[main]\namount = 4x2\n".getBytes()));
+      fail("Expected the bad value to be reported");
+    } catch (ConfigException e) {
+      assertEquals(Arrays.toString(e.getMessages().getErrors()), "[Field 'amount' (int) is not writable: conversion "
+          + "of value '4x2' failed: Unexpected character 'x' in number '4x2']");
+    }
+  }
+
+  /**
+   * Creates a map-based model with field access, parses configuration, and validates the parsed data.
+   *
+   * @throws ConfigException When parsing fails.
+   */
+  @Test
+  public void testMapModelParse() throws ConfigException {
+    MapConfigModel<FieldModel> model = MapConfigModel.expect(FieldModel.class, new DefaultConverter(),
+        BeanAccess.FIELDS, "description", "amount");
+
+    Map<String, FieldModel> config = model.parse(new ByteArrayInputStream(
+        "[a]\ndescription = A\namount = 1\n[b]\namount = 2\n".getBytes()));
+
+    assertEquals(config.size(), 2);
+    assertEquals(config.get("a").getDescription(), "A");
+    assertEquals(config.get("a").getAmount(), 1);
+    assertEquals(config.get("b").getAmount(), 2);
+  }
+
+  /**
+   * When the bean has neither a field nor a setter for a property.
+   */
+  @Test(
+      expectedExceptions = ModelException.class,
+      expectedExceptionsMessageRegExp = "Property 'code' is not writable or does not exist in "
+          + "ws\\.rocket\\.config\\.test\\.data\\.FieldModel"
+  )
+  public void testFieldNotExist() {
+    MapConfigModel.expect(FieldModel.class, new DefaultConverter(), BeanAccess.FIELDS, "description", "code");
+  }
+
+}
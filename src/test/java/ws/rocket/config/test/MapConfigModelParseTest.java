@@ -19,13 +19,44 @@ package ws.rocket.config.test;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import org.testng.annotations.Test;
+import ws.rocket.config.CompositeParseListener;
 import ws.rocket.config.ConfigException;
+import ws.rocket.config.ConfigMonitor;
 import ws.rocket.config.MapConfigModel;
 import ws.rocket.config.Messages;
+import ws.rocket.config.ParseResult;
+import ws.rocket.config.ParseStats;
+import ws.rocket.config.ReloadConsumer;
+import ws.rocket.config.SectionConsumer;
+import ws.rocket.config.section.value.DefaultConverter;
+import ws.rocket.config.section.value.MemoizingConverter;
 import ws.rocket.config.test.data.ConfigTestModel;
 import ws.rocket.config.test.data.ReadOnlyModel;
 
@@ -98,6 +129,324 @@ public final class MapConfigModelParseTest {
     }
   }
 
+  /**
+   * Parses the same configuration file (<em>/map-setter-test.conf</em>) with one model from several threads at the same
+   * time, and validates that every result is complete.
+   *
+   * @throws Exception When parsing fails.
+   */
+  @Test
+  public void testModelSharedParse() throws Exception {
+    final MapConfigModel<ConfigTestModel> model = MapConfigModel.expect(ConfigTestModel.class);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    try {
+      List<Future<Map<String, ConfigTestModel>>> results = new ArrayList<Future<Map<String, ConfigTestModel>>>();
+
+      for (int i = 0; i < 200; i++) {
+        results.add(executor.submit(new Callable<Map<String, ConfigTestModel>>() {
+          @Override
+          public Map<String, ConfigTestModel> call() throws ConfigException {
+            return model.parse(ConfigTestModel.class.getResourceAsStream("/map-setter-test.conf"));
+          }
+        }));
+      }
+
+      for (Future<Map<String, ConfigTestModel>> result : results) {
+        Map<String, ConfigTestModel> config = result.get();
+        assertEquals(config.size(), 3, "Expecting 3 items in map");
+        validateSection(config.get("normal"), 1, String.class, 1024);
+        validateSection(config.get("reverse-order"), 2, Set.class, -1025);
+        validateSection(config.get("partial"), 3, null, 0);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Parses sections with identical content, and validates that they share the bean only when requested.
+   *
+   * @throws ConfigException When parsing fails.
+   */
+  @Test
+  public void testModelShareIdenticalBeans() throws ConfigException {
+    MapConfigModel<ReadOnlyModel> model = MapConfigModel.expect(ReadOnlyModel.class, "code", "text", "enabled");
+    String data = "[a]\ncode = 200\ntext = OK\nenabled = true\n[b]\nenabled = true\ntext = OK\ncode = 200\n"
+        + "[c]\ncode = 201\nenabled = false\n";
+
+    Map<String, ReadOnlyModel> config = model.parse(new ByteArrayInputStream(data.getBytes()));
+    assertNotSame(config.get("a"), config.get("b"), "Beans are not shared by default");
+
+    MapConfigModel<ReadOnlyModel> sharingModel = model.shareIdenticalBeans();
+    assertTrue(sharingModel.isSharingIdenticalBeans());
+
+    config = sharingModel.parse(new ByteArrayInputStream(data.getBytes()));
+    assertSame(config.get("a"), config.get("b"), "Beans of identical sections are shared");
+    assertNotSame(config.get("a"), config.get("c"));
+    validateSection(config.get("c"), 201, null, false);
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      config = sharingModel.parse(new ByteArrayInputStream(data.getBytes()), executor);
+      assertEquals(config.size(), 3, "Expecting 3 items in map");
+      assertSame(config.get("a"), config.get("b"), "Beans of identical sections are shared");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Parses configuration file (<em>/map-setter-test.conf</em>) lazily, and validates the parsed data.
+   *
+   * @throws Exception When parsing fails.
+   */
+  @Test
+  public void testModelLazyParse() throws Exception {
+    MapConfigModel<ConfigTestModel> model = MapConfigModel.expect(ConfigTestModel.class);
+    File file = new File(ConfigTestModel.class.getResource("/map-setter-test.conf").toURI());
+
+    Map<String, ConfigTestModel> config = model.parseLazy(file);
+
+    assertEquals(config.size(), 3, "Expecting 3 items in map");
+    assertTrue(config.containsKey("reverse-order"));
+    assertNull(config.get("unknown"));
+
+    validateSection(config.get("partial"), 3, null, 0);
+    assertSame(config.get("partial"), config.get("partial"), "Cached bean");
+    validateSection(config.get("reverse-order"), 2, Set.class, -1025);
+    validateSection(config.get("normal"), 1, String.class, 1024);
+    assertEquals(new HashMap<String, ConfigTestModel>(config).keySet(), config.keySet());
+  }
+
+  /**
+   * Scans and lazily parses configuration files with errors, and validates that the errors refer to the lines of the
+   * whole file.
+   *
+   * @throws Exception When parsing fails unexpectedly.
+   */
+  @Test
+  public void testModelLazyParseErrors() throws Exception {
+    MapConfigModel<ConfigTestModel> model = MapConfigModel.expect(ConfigTestModel.class);
+    File file = File.createTempFile("lazy-test", ".conf");
+    file.deleteOnExit();
+
+    writeFile(file, "[a]\namount = 1\n\n[b]\n# comment\nbad line\n");
+    Map<String, ConfigTestModel> config = model.parseLazy(file);
+
+    assertEquals(config.get("a").getAmount(), 1);
+    try {
+      config.get("b");
+      fail("Expected the bad value to be reported");
+    } catch (IllegalStateException e) {
+      assertEquals(((ConfigException) e.getCause()).getMessages().getErrors(), new String[] {
+          "[b:6]: Bad property line format: 'bad line' (should be: key = value)" });
+    }
+
+    writeFile(file, "[a]\n[b\n\n[a]\n");
+    try {
+      model.parseLazy(file);
+      fail("Expected the bad sections to be reported");
+    } catch (ConfigException e) {
+      assertEquals(Arrays.toString(e.getMessages().getErrors()),
+          "[[a:2]: Bad section name format: [b, [a:4]: Section is already defined.]");
+    }
+  }
+
+  /**
+   * Parses a configuration file with square brackets inside a property value both lazily and fully, and validates that
+   * both treat only lines starting with a square bracket as section declarations.
+   *
+   * @throws Exception When parsing fails.
+   */
+  @Test
+  public void testModelBracketInValue() throws Exception {
+    MapConfigModel<ConfigTestModel> model = MapConfigModel.expect(ConfigTestModel.class);
+    File file = File.createTempFile("bracket-test", ".conf");
+    file.deleteOnExit();
+
+    String data = "[a]\ndescription = list [1, 2]\namount = 1\n  [b]\namount = 2\n";
+    writeFile(file, data);
+    Map<String, ConfigTestModel> lazy = model.parseLazy(file);
+    Map<String, ConfigTestModel> full = model.parse(new ByteArrayInputStream(data.getBytes("UTF-8")));
+
+    assertEquals(lazy.keySet(), full.keySet());
+    assertEquals(full.keySet(), new HashSet<String>(Arrays.asList("a", "b")));
+    for (Map<String, ConfigTestModel> config : Arrays.asList(lazy, full)) {
+      assertEquals(config.get("a").getDescription(), "list [1, 2]");
+      assertEquals(config.get("a").getAmount(), 1);
+      assertEquals(config.get("b").getAmount(), 2);
+    }
+  }
+
+  private static void writeFile(File file, String data) throws IOException {
+    OutputStream output = new FileOutputStream(file);
+    try {
+      output.write(data.getBytes("UTF-8"));
+    } finally {
+      output.close();
+    }
+  }
+
+  /**
+   * Parses configuration file (<em>/map-setter-test.conf</em>) handing over beans one by one, and validates the
+   * received data.
+   *
+   * @throws ConfigException When parsing fails.
+   */
+  @Test
+  public void testModelStreamingParse() throws ConfigException {
+    MapConfigModel<ConfigTestModel> model = MapConfigModel.expect(ConfigTestModel.class);
+    final List<String> names = new ArrayList<String>();
+    final Map<String, ConfigTestModel> config = new HashMap<String, ConfigTestModel>();
+
+    model.parse(ConfigTestModel.class.getResourceAsStream("/map-setter-test.conf"),
+        new SectionConsumer<ConfigTestModel>() {
+          @Override
+          public void accept(String sectionName, ConfigTestModel bean) {
+            names.add(sectionName);
+            config.put(sectionName, bean);
+          }
+        });
+
+    assertEquals(names, Arrays.asList("normal", "reverse-order", "partial"), "Sections in order of the file");
+    validateSection(config.get("normal"), 1, String.class, 1024);
+    validateSection(config.get("reverse-order"), 2, Set.class, -1025);
+    validateSection(config.get("partial"), 3, null, 0);
+  }
+
+  /**
+   * Parses configuration file (<em>/map-constructor-test.conf</em>) constructing beans in parallel, and validates the
+   * parsed data.
+   *
+   * @throws ConfigException When parsing fails.
+   */
+  @Test
+  public void testModelParallelConstructorParse() throws ConfigException {
+    MapConfigModel<ReadOnlyModel> model = MapConfigModel.expect(ReadOnlyModel.class, "code", "text", "enabled");
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    try {
+      Map<String, ReadOnlyModel> config = model.parse(
+              ConfigTestModel.class.getResourceAsStream("/map-constructor-test.conf"), executor);
+
+      assertEquals(config.size(), 3, "Expecting 3 items in map");
+      validateSection(config.get("normal"), 404, "Page Not Found", true);
+      validateSection(config.get("reverse-order"), 401, "Not authorized", false);
+      validateSection(config.get("partial"), 200, null, true);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Parses several configuration files in bulk, one of which does not exist, and validates the results per file.
+   *
+   * @throws Exception When the test files cannot be resolved.
+   */
+  @Test
+  public void testModelParseAll() throws Exception {
+    MapConfigModel<ConfigTestModel> model = MapConfigModel.expect(ConfigTestModel.class);
+    File file = new File(ConfigTestModel.class.getResource("/map-setter-test.conf").toURI());
+    File missing = new File(file.getParentFile(), "missing-test.conf");
+
+    List<ParseResult<Map<String, ConfigTestModel>>> results = model.parseAll(Arrays.asList(file, missing, file));
+
+    assertEquals(results.size(), 3, "Expecting a result per file");
+    for (int i : new int[] { 0, 2 }) {
+      ParseResult<Map<String, ConfigTestModel>> result = results.get(i);
+      assertSame(result.getFile(), file);
+      assertTrue(result.isSuccess(), "Expecting success for " + result);
+      assertEquals(result.getResult().size(), 3, "Expecting 3 items in map");
+      validateSection(result.getResult().get("normal"), 1, String.class, 1024);
+    }
+
+    ParseResult<Map<String, ConfigTestModel>> result = results.get(1);
+    assertSame(result.getFile(), missing);
+    assertFalse(result.isSuccess(), "Expecting failure for a missing file");
+    assertNull(result.getResult());
+    assertEquals(result.getMessages().getErrorCount(), 1);
+  }
+
+  /**
+   * Parses configuration file (<em>/map-setter-test.conf</em>) with statistics limited to two section names, and
+   * validates that the third section is counted as overflow.
+   *
+   * @throws ConfigException When parsing fails.
+   */
+  @Test
+  public void testModelStatsLimit() throws ConfigException {
+    ParseStats stats = new ParseStats(2);
+    MapConfigModel.expect(ConfigTestModel.class).listener(stats)
+        .parse(ConfigTestModel.class.getResourceAsStream("/map-setter-test.conf"));
+
+    assertEquals(stats.getSectionNames().toString(), "[normal, reverse-order]");
+    assertEquals(stats.getOverflowCount(), 1);
+    assertEquals(stats.getSectionLines("partial"), 0);
+    assertTrue(stats.toString().contains("\n1 more section(s): 3 lines, "), stats.toString());
+  }
+
+  /**
+   * Parses configuration file (<em>/map-setter-test.conf</em>) with a model monitored through JMX, and validates the
+   * statistics and operations of the registered MBean.
+   *
+   * @throws Exception When parsing or the MBean access fails.
+   */
+  @Test
+  public void testModelMonitor() throws Exception {
+    ConfigMonitor monitor = new ConfigMonitor("map-setter-test");
+    ParseStats stats = new ParseStats();
+    MapConfigModel<ConfigTestModel> model = MapConfigModel.expect(ConfigTestModel.class,
+        new MemoizingConverter(new DefaultConverter(), 10, Class.class))
+        .listener(new CompositeParseListener(monitor, stats));
+    File file = new File(ConfigTestModel.class.getResource("/map-setter-test.conf").toURI());
+
+    model.parse(new FileInputStream(file));
+    long fileBytes = monitor.getBytesProcessed();
+    try {
+      model.parse(new ByteArrayInputStream("[bad]\nindex = x\n".getBytes()));
+      fail("Expected the bad value to be reported");
+    } catch (ConfigException e) {
+      assertEquals(e.getMessages().getErrorCount(), 1);
+    }
+
+    final List<Map<String, ConfigTestModel>> reloaded = new ArrayList<Map<String, ConfigTestModel>>();
+    monitor.attach(model, file, new ReloadConsumer<Map<String, ConfigTestModel>>() {
+
+      @Override
+      public void accept(Map<String, ConfigTestModel> config) {
+        reloaded.add(config);
+      }
+    }).register();
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = monitor.getObjectName();
+
+      assertEquals(server.getAttribute(name, "ParseCount"), 2L);
+      assertEquals(server.getAttribute(name, "FailedParseCount"), 1L);
+      assertEquals(server.getAttribute(name, "ErrorCount"), 1L);
+      assertEquals(server.getAttribute(name, "ConfigFile"), file.getPath());
+
+      String outcome = (String) server.invoke(name, "reparse", null, null);
+      assertTrue(outcome.startsWith("Reloaded "), outcome);
+      assertEquals(reloaded.size(), 1);
+      assertEquals(reloaded.get(0).size(), 3);
+      assertEquals(monitor.getParseCount(), 3);
+      assertEquals(stats.getParseCount(), 3, "The reload is measured by all listeners of the model");
+      assertEquals(monitor.getBytesProcessed(), 2 * fileBytes + "index = x\n".length());
+      assertTrue(monitor.getMaxParseMillis() >= monitor.getAverageParseMillis());
+      assertTrue(monitor.getCacheHitRate() > 0, "Class values are repeated by re-parsing");
+      assertTrue(((String) server.invoke(name, "describe", null, null)).contains("[*]"));
+
+      monitor.attach(model.listener(stats), file);
+      assertTrue(monitor.reparse().startsWith("Validated "));
+      assertEquals(monitor.getParseCount(), 4, "The monitor is added to the listener of the model");
+      assertEquals(stats.getParseCount(), 4);
+    } finally {
+      monitor.unregister();
+    }
+  }
+
   private void verifyToString(MapConfigModel<?> model) {
     System.out.println(model.toString());
   }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ws.rocket.config.test.data;
+
+import java.util.List;
+import ws.rocket.config.test.data.filter.TestFilter;
+
+/**
+ * A configuration data bean without setter methods, used in tests for writing values directly to fields.
+ *
+ * @author Martti Tamm
+ */
+public final class FieldModel {
+
+  private String description;
+
+  private int amount;
+
+  private Class<?> clazz;
+
+  private ReadOnlyModel readOnly;
+
+  private List<String> names;
+
+  private TestFilter[] filters;
+
+  private int[] codes;
+
+  /**
+   * Provides the value of the named property.
+   * 
+   * @return The value of this bean property.
+   */
+  public String getDescription() {
+    return this.description;
+  }
+
+  /**
+   * Provides the value of the named property.
+   * 
+   * @return The value of this bean property.
+   */
+  public int getAmount() {
+    return this.amount;
+  }
+
+  /**
+   * Provides the value of the named property.
+   * 
+   * @return The value of this bean property.
+   */
+  public Class<?> getClazz() {
+    return this.clazz;
+  }
+
+  /**
+   * Provides the value of the named property.
+   * 
+   * @return The value of this bean property.
+   */
+  public ReadOnlyModel getReadOnly() {
+    return this.readOnly;
+  }
+
+  /**
+   * Provides the value of the named property.
+   * 
+   * @return The value of this bean property.
+   */
+  public List<String> getNames() {
+    return this.names;
+  }
+
+  /**
+   * Provides the value of the named property.
+   * 
+   * @return The value of this bean property.
+   */
+  public TestFilter[] getFilters() {
+    return this.filters;
+  }
+
+  /**
+   * Provides the value of the named property.
+   * 
+   * @return The value of this bean property.
+   */
+  public int[] getCodes() {
+    return this.codes;
+  }
+
+}